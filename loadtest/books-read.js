@@ -0,0 +1,56 @@
+// k6 read-path load test: https://k6.io
+//   k6 run -e VUS=1000 -e DURATION=60s loadtest/books-read.js
+// Each virtual user is one client looping over the book/author read endpoints with no think time.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const BOOKS = Number(__ENV.BOOKS || 1000);
+const PAGE_SIZE = 20;
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 1000),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+// Seeds BOOKS books (each with its own author) once through the NDJSON bulk endpoint
+export function setup() {
+    if (http.get(`${BASE_URL}/books/LT-0`).status === 200) {
+        return;
+    }
+    const lines = [];
+    for (let i = 0; i < BOOKS; i++) {
+        lines.push(JSON.stringify({
+            isbn: `LT-${i}`,
+            title: `Load Test Book ${i}`,
+            published: true,
+            pages: 100 + (i % 400),
+            price: 19.99,
+            tags: ['load', 'test'],
+            ratings: [4.0, 4.5],
+            author: { name: `Load Test Author ${i}`, age: 40, active: true, genres: ['Fiction'], scores: [90] },
+        }));
+    }
+    const res = http.post(`${BASE_URL}/books/bulk`, lines.join('\n'), {
+        headers: { 'Content-Type': 'application/x-ndjson' },
+        timeout: '300s',
+    });
+    check(res, { 'seeded': (r) => r.status === 200 });
+}
+
+export default function () {
+    const page = Math.floor(Math.random() * (BOOKS / PAGE_SIZE));
+    check(http.get(`${BASE_URL}/books?page=${page}&size=${PAGE_SIZE}`), {
+        'page 200': (r) => r.status === 200,
+    });
+    const isbn = `LT-${Math.floor(Math.random() * BOOKS)}`;
+    check(http.get(`${BASE_URL}/books/${isbn}`), {
+        'book 200': (r) => r.status === 200,
+    });
+}
@@ -0,0 +1,25 @@
+#!/usr/bin/env sh
+# Runs books-read.js at 1k, 5k and 10k concurrent clients against an already running app and
+# stores k6's summary per level under loadtest/results/<label>-<clients>.json.
+#
+#   loadtest/run.sh platform      # app started with ./mvnw spring-boot:run            (Java 17)
+#   loadtest/run.sh virtual       # app started with ./mvnw -Pjava21 spring-boot:run   (Java 21)
+#
+# Optional: DURATION (default 60s), BASE_URL (default http://localhost:8080), LEVELS.
+set -eu
+
+LABEL=${1:?usage: run.sh <label>}
+DURATION=${DURATION:-60s}
+LEVELS=${LEVELS:-"1000 5000 10000"}
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+mkdir -p "$DIR/results"
+# 10k clients need 10k sockets on the k6 side
+ulimit -n 65535 2>/dev/null || echo "warning: could not raise the open file limit" >&2
+
+for VUS in $LEVELS; do
+    echo "== $LABEL: $VUS clients for $DURATION"
+    k6 run --quiet -e VUS="$VUS" -e DURATION="$DURATION" \
+        --summary-export "$DIR/results/$LABEL-$VUS.json" "$DIR/books-read.js"
+    sleep 10   # let connections drain between levels
+done
@@ -0,0 +1,60 @@
+package com.example.fullrestapi;
+
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fixtures for the JMH benchmarks, with collection sizes driven by @Param values
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static AuthorEntity author(long id, int genres, int scores) {
+        List<String> genreList = new ArrayList<>(genres);
+        for (int i = 0; i < genres; i++) {
+            genreList.add("Genre " + i);
+        }
+        List<Integer> scoreList = new ArrayList<>(scores);
+        for (int i = 0; i < scores; i++) {
+            scoreList.add(i % 100);
+        }
+        return AuthorEntity.builder()
+                .id(id)
+                .name("Author " + id)
+                .age(42)
+                .active(true)
+                .rating(4.5)
+                .totalBooks(10)
+                .genres(genreList)
+                .scores(scoreList)
+                .wealth(new BigDecimal("1000000.50"))
+                .followers(new BigInteger("50000"))
+                .build();
+    }
+
+    public static BookEntity book(int index, AuthorEntity author, int tags, int ratings) {
+        List<String> tagList = new ArrayList<>(tags);
+        for (int i = 0; i < tags; i++) {
+            tagList.add("tag-" + i);
+        }
+        List<Double> ratingList = new ArrayList<>(ratings);
+        for (int i = 0; i < ratings; i++) {
+            ratingList.add((i % 5) + 0.5);
+        }
+        return BookEntity.builder()
+                .isbn(String.format("978-0-%06d", index))
+                .title("Book " + index)
+                .published(true)
+                .pages(350)
+                .price(new BigDecimal("49.99"))
+                .author(author)
+                .tags(tagList)
+                .ratings(ratingList)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.fullrestapi.Controllers;
+
+import com.example.fullrestapi.domain.dto.AuthorDto;
+import com.example.fullrestapi.validation.ValidationEngine;
+import com.example.fullrestapi.validation.ValidationMode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Payload validation as the controllers run it on POST/PUT (FULL) and PATCH (PARTIAL),
+// against Hibernate Validator's per-call validate() as a baseline
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private ValidationEngine engine;
+    private Validator validator;
+    private AuthorDto fullPayload;
+    private AuthorDto namePatch;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        engine = new ValidationEngine(validatorFactory);
+        validator = validatorFactory.getValidator();
+        fullPayload = AuthorDto.builder()
+                .name("Mary-Jane O'Neil")
+                .age(42)
+                .active(true)
+                .rating(4.5)
+                .totalBooks(10)
+                .wealth(new BigDecimal("1000000.50"))
+                .followers(new BigInteger("50000"))
+                .build();
+        namePatch = AuthorDto.builder().name("Arther").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Map<String, String> engineFullPayload() {
+        return engine.check(fullPayload, ValidationMode.FULL);
+    }
+
+    @Benchmark
+    public Map<String, String> enginePartialNameOnly() {
+        return engine.check(namePatch, ValidationMode.PARTIAL);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AuthorDto>> hibernateValidatorFullPayload() {
+        return validator.validate(fullPayload);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.fullrestapi.Controllers;
+
+import com.example.fullrestapi.BenchmarkData;
+import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.mappers.AuthorMappingImpl;
+import com.example.fullrestapi.mappers.BookMappingImpl;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// A 100-item GET /books page in each negotiable format, with and without gzip.
+// Time is serialization (+ compression); wireBytes is the body size a client would receive.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookPagePayloadBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"10"})
+    private int collectionSize;         // genres, scores, tags and ratings
+
+    private ObjectWriter writer;
+    private PageImpl<BookDto> page;
+
+    // Reported by JMH next to the timing as writePage:wireBytes
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException(format);
+        };
+        writer = Jackson2ObjectMapperBuilder.json().factory(factory).build().writer();
+
+        BookMappingImpl bookMapping = new BookMappingImpl(new AuthorMappingImpl());
+        List<BookDto> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            AuthorEntity author = BenchmarkData.author(i, collectionSize, collectionSize);
+            content.add(bookMapping.toDto(BenchmarkData.book(i, author, collectionSize, collectionSize)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, PAGE_SIZE), 10_000);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writePage(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            writer.writeValue(out, page);
+        }
+        payload.wireBytes = bytes.size();
+        return bytes;
+    }
+}
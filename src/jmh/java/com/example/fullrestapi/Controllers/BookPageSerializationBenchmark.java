@@ -0,0 +1,54 @@
+package com.example.fullrestapi.Controllers;
+
+import com.example.fullrestapi.BenchmarkData;
+import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.mappers.AuthorMappingImpl;
+import com.example.fullrestapi.mappers.BookMappingImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of a GET /books page: BookDto items with a nested AuthorDto each
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    @Param({"0", "10", "100"})
+    private int collectionSize;         // genres, scores, tags and ratings
+
+    private ObjectWriter writer;
+    private PageImpl<BookDto> page;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+        BookMappingImpl bookMapping = new BookMappingImpl(new AuthorMappingImpl());
+        List<BookDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            AuthorEntity author = BenchmarkData.author(i, collectionSize, collectionSize);
+            content.add(bookMapping.toDto(BenchmarkData.book(i, author, collectionSize, collectionSize)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
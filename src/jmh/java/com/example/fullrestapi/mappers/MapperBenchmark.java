@@ -0,0 +1,97 @@
+package com.example.fullrestapi.mappers;
+
+import com.example.fullrestapi.BenchmarkData;
+import com.example.fullrestapi.domain.dto.AuthorDto;
+import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.mappers.Impl.AuthorMapperImpl;
+import com.example.fullrestapi.mappers.Impl.BookMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated (MapStruct) mappers against the reflective ModelMapper setup they replaced,
+ * configured exactly as the old MapperConfig bean was.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int authorCollectionSize;   // genres and scores
+
+    @Param({"0", "10", "100"})
+    private int bookCollectionSize;     // tags and ratings
+
+    private ModelMapper modelMapper;
+    private AuthorMapperImpl authorMapper;
+    private BookMapperImpl bookMapper;
+    private AuthorEntity authorEntity;
+    private AuthorDto authorDto;
+    private BookEntity bookEntity;
+    private BookDto bookDto;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setSkipNullEnabled(true)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+
+        AuthorMappingImpl authorMapping = new AuthorMappingImpl();
+        authorMapper = new AuthorMapperImpl(authorMapping);
+        bookMapper = new BookMapperImpl(new BookMappingImpl(authorMapping), authorMapper);
+
+        authorEntity = BenchmarkData.author(1L, authorCollectionSize, authorCollectionSize);
+        authorDto = authorMapper.mapTo(authorEntity);
+        bookEntity = BenchmarkData.book(1, authorEntity, bookCollectionSize, bookCollectionSize);
+        bookDto = bookMapper.mapTo(bookEntity);
+    }
+
+    @Benchmark
+    public AuthorDto authorMapTo() {
+        return authorMapper.mapTo(authorEntity);
+    }
+
+    @Benchmark
+    public AuthorEntity authorMapFrom() {
+        return authorMapper.mapFrom(authorDto);
+    }
+
+    @Benchmark
+    public AuthorEntity authorMapPartial() {
+        AuthorEntity target = AuthorEntity.builder().id(1L).build();
+        authorMapper.mapPartial(authorDto, target);
+        return target;
+    }
+
+    @Benchmark
+    public BookDto bookMapTo() {
+        return bookMapper.mapTo(bookEntity);
+    }
+
+    @Benchmark
+    public BookEntity bookMapFrom() {
+        return bookMapper.mapFrom(bookDto);
+    }
+
+    @Benchmark
+    public BookDto modelMapperBookMapTo() {
+        return modelMapper.map(bookEntity, BookDto.class);
+    }
+
+    @Benchmark
+    public BookEntity modelMapperBookMapFrom() {
+        return modelMapper.map(bookDto, BookEntity.class);
+    }
+}
@@ -1,202 +1,226 @@
 package com.example.fullrestapi.Controllers;
 
 import com.example.fullrestapi.Service.AuthorService;
+import com.example.fullrestapi.admission.AdmissionProperties;
+import com.example.fullrestapi.Service.BookService;
 import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.AuthorStatsEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.domain.dto.AuthorBatchResponseDto;
+import com.example.fullrestapi.domain.dto.AuthorBatchResultDto;
 import com.example.fullrestapi.domain.dto.AuthorDto;
+import com.example.fullrestapi.domain.dto.AuthorStatsDto;
+import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.dto.CursorPageDto;
+import com.example.fullrestapi.exception.ResourceNotFoundException;
 import com.example.fullrestapi.mappers.Mapper;
-import jakarta.validation.Valid;
+import com.example.fullrestapi.pagination.CountStrategy;
+import com.example.fullrestapi.pagination.CountedPage;
+import com.example.fullrestapi.pagination.KeysetCursor;
+import com.example.fullrestapi.validation.ValidationEngine;
+import com.example.fullrestapi.validation.ValidationMode;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/authors")
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final BookService bookService;
     private final Mapper<AuthorEntity, AuthorDto> authorMapper;
+    private final Mapper<BookEntity, BookDto> bookMapper;
+    private final ValidationEngine validationEngine;
+    private final AdmissionProperties admission;
 
-    public AuthorController(AuthorService authorService, Mapper<AuthorEntity, AuthorDto> authorMapper) {
+    public AuthorController(AuthorService authorService, BookService bookService,
+                            Mapper<AuthorEntity, AuthorDto> authorMapper, Mapper<BookEntity, BookDto> bookMapper,
+                            ValidationEngine validationEngine, AdmissionProperties admission) {
         this.authorService = authorService;
+        this.bookService = bookService;
         this.authorMapper = authorMapper;
+        this.bookMapper = bookMapper;
+        this.validationEngine = validationEngine;
+        this.admission = admission;
     }
 
+    // Duplicate names are rejected by the uk_authors_name constraint (409 from GlobalExceptionHandler)
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody AuthorDto author) {
-        try {
-            AuthorEntity saved = authorService.save(authorMapper.mapFrom(author));
-            return ResponseEntity.status(HttpStatus.CREATED).body(authorMapper.mapTo(saved));
-        } catch (RuntimeException ex) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", ex.getMessage()));
+    public ResponseEntity<Object> create(@RequestBody AuthorDto author) {
+        validationEngine.validate(author, ValidationMode.FULL);
+        AuthorEntity entity = authorMapper.mapFrom(author);
+        entity.setId(null); // POST always inserts; a client id with no version would make persist() fail
+        AuthorEntity saved = authorService.save(entity);
+        return ResponseEntity.status(HttpStatus.CREATED).body(authorMapper.mapTo(saved));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<AuthorBatchResponseDto> createBatch(@RequestBody List<AuthorDto> authors) {
+        AuthorBatchResultDto[] results = new AuthorBatchResultDto[authors.size()];
+        List<AuthorEntity> candidates = new ArrayList<>();
+        List<Integer> candidateIndexes = new ArrayList<>();
+
+        for (int i = 0; i < authors.size(); i++) {
+            Map<String, String> errors = validationEngine.check(authors.get(i), ValidationMode.FULL);
+            if (!errors.isEmpty()) {
+                results[i] = AuthorBatchResultDto.builder()
+                        .index(i)
+                        .status("INVALID")
+                        .error(errors.entrySet().stream()
+                                .map(e -> e.getKey() + ": " + e.getValue())
+                                .collect(Collectors.joining(", ")))
+                        .build();
+                continue;
+            }
+            candidates.add(authorMapper.mapFrom(authors.get(i)));
+            candidateIndexes.add(i);
+        }
+
+        authorService.saveAll(candidates);
+
+        int created = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            AuthorEntity candidate = candidates.get(i);
+            int index = candidateIndexes.get(i);
+            if (candidate.getId() != null) {
+                created++;
+                results[index] = AuthorBatchResultDto.builder()
+                        .index(index)
+                        .status("CREATED")
+                        .author(authorMapper.mapTo(candidate))
+                        .build();
+            } else {
+                results[index] = AuthorBatchResultDto.builder()
+                        .index(index)
+                        .status("CONFLICT")
+                        .error("Author with this name already exists")
+                        .build();
+            }
         }
+
+        return ResponseEntity.ok(AuthorBatchResponseDto.builder()
+                .created(created)
+                .failed(authors.size() - created)
+                .results(List.of(results))
+                .build());
     }
 
+    // X-Total-Count-Strategy says whether totalElements is exact, cached or estimated
     @GetMapping
-    public Page<AuthorDto> findAll(Pageable pageable) {
-        return authorService.findAll(pageable).map(authorMapper::mapTo);
+    public ResponseEntity<Page<AuthorDto>> findAll(Pageable pageable) {
+        CountedPage<AuthorEntity> page = authorService.findAll(pageable);
+        return ResponseEntity.ok()
+                .header(CountStrategy.HEADER, page.getCountStrategy().headerValue())
+                .body(page.map(authorMapper::mapTo));
     }
 
+    // Keyset pagination, opted into with ?after= (empty for the first page); no offset scan, no count(*)
+    @GetMapping(params = "after")
+    public CursorPageDto<AuthorDto> findAllAfter(@RequestParam String after,
+                                                 @RequestParam(defaultValue = "20") int size,
+                                                 @RequestParam(defaultValue = "id") String sort) {
+        KeysetCursor cursor = KeysetCursor.decode(after, sort);
+        int limit = admission.clampPageSize(size);
+        Long afterId = cursor.isFirst() ? Long.MIN_VALUE : Long.valueOf(cursor.getId());
+
+        // Fetch one extra row to learn whether another page exists
+        List<AuthorEntity> rows = switch (cursor.getSort()) {
+            case "id" -> authorService.findAllAfterId(afterId, limit + 1);
+            case "name" -> authorService.findAllAfterName(cursor.isFirst() ? "" : cursor.getKey(), afterId, limit + 1);
+            default -> throw new IllegalArgumentException("Unsupported cursor sort: " + cursor.getSort());
+        };
+
+        boolean hasNext = rows.size() > limit;
+        List<AuthorEntity> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AuthorEntity last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.after(cursor.getSort(), last.getName(), String.valueOf(last.getId())).encode();
+        }
+
+        return CursorPageDto.<AuthorDto>builder()
+                .content(page.stream().map(authorMapper::mapTo).toList())
+                .size(limit)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Polls with If-None-Match are answered from the version column: 304 without loading the author
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findById(@PathVariable Long id) {
+    public ResponseEntity<Object> findById(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = authorService.findVersion(id);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.author(version.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.author(version.get())).build();
+            }
+        }
         return authorService.findById(id)
-                .map(authorMapper::mapTo)
-                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .<ResponseEntity<Object>>map(author -> ResponseEntity.ok()
+                        .eTag(ETags.author(author.getVersion()))
+                        .body(authorMapper.mapTo(author)))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Author not found")));
     }
 
+    // Kept up to date from book writes (at most app.author-stats.flush-interval behind): one primary-key read
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<AuthorStatsDto> findStats(@PathVariable Long id) {
+        AuthorStatsEntity stats = authorService.findStats(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found"));
+        return ResponseEntity.ok(AuthorStatsDto.builder()
+                .authorId(stats.getAuthorId())
+                .bookCount(stats.getBookCount())
+                .ratingCount(stats.getRatingCount())
+                .averageRating(stats.getRatingCount() > 0 ? stats.getRatingSum() / stats.getRatingCount() : null)
+                .totalPrice(stats.getPriceTotal())
+                .build());
+    }
+
+    // An author's books in ISBN order as a Slice (content, last, no count(*)); ?total=true adds totalElements
+    @GetMapping("/{id}/books")
+    public Slice<BookDto> findBooks(@PathVariable Long id,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size,
+                                    @RequestParam(defaultValue = "false") boolean total) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), admission.clampPageSize(size), Sort.by("isbn"));
+        return bookService.findAllByAuthor(id, pageable, total).map(bookMapper::mapTo);
+    }
 
+    // Unknown ids and duplicate names come back as 404/409 from the write itself, no pre-checks
     @PutMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable Long id, @Valid @RequestBody AuthorDto authorDto) {
-        if (!authorService.isExists(id)) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "Author not found"));
-        }
-        try {
-            AuthorEntity entity = authorMapper.mapFrom(authorDto);
-            entity.setId(id);
-            AuthorEntity saved = authorService.save(entity);
-            return ResponseEntity.ok(authorMapper.mapTo(saved));
-        } catch (RuntimeException ex) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", ex.getMessage()));
-        }
+    public ResponseEntity<Object> update(@PathVariable Long id, @RequestBody AuthorDto authorDto) {
+        validationEngine.validate(authorDto, ValidationMode.FULL);
+        AuthorEntity saved = authorService.update(id, authorMapper.mapFrom(authorDto));
+        return ResponseEntity.ok(authorMapper.mapTo(saved));
     }
 
+    // Only the fields present in the patch are validated, against the same rules as POST/PUT
     @PatchMapping("/{id}")
     public ResponseEntity<Object> partialUpdate(@PathVariable Long id,
                                                 @RequestBody AuthorDto authorDto) {
-
-        if (!authorService.isExists(id)) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "Author not found"));
-        }
-
-        // ✅ ADD MANUAL VALIDATION FOR PROVIDED FIELDS
-        ResponseEntity<Object> validationError = validatePartialUpdate(authorDto);
-        if (validationError != null) {
-            return validationError;
-        }
-
-        // Check if name is provided and already exists for another author
-        if (authorDto.getName() != null &&
-                authorService.existsByNameAndIdNot(authorDto.getName(), id)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", "Author with this name already exists"));
-        }
-
+        validationEngine.validate(authorDto, ValidationMode.PARTIAL);
         AuthorEntity updated = authorService.partialUpdate(id, authorMapper.mapFrom(authorDto));
         return ResponseEntity.ok(authorMapper.mapTo(updated));
     }
 
-    // ✅ ADD VALIDATION METHOD FOR PARTIAL UPDATES (WITH ACTIVE VALIDATION)
-    private ResponseEntity<Object> validatePartialUpdate(AuthorDto authorDto) {
-        // Validate name if provided
-        if (authorDto.getName() != null) {
-            if (authorDto.getName().isBlank()) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Name must not be empty"));
-            }
-
-            if (authorDto.getName().length() > 100) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Name cannot exceed 100 characters"));
-            }
-
-            // ✅ ADD SPECIAL CHARACTER VALIDATION
-            if (containsInvalidCharacters(authorDto.getName())) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Name must not contain special characters"));
-            }
-        }
-
-        // ✅ VALIDATE ACTIVE FIELD IF PROVIDED (REQUIRED FIELD!)
-        if (authorDto.getActive() != null) {
-            // Active is a Boolean, so we just need to ensure it's not null
-            // But since it's @NotNull in DTO, we should validate it's provided correctly
-            if (authorDto.getActive() == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Active is required"));
-            }
-        }
-
-        // Validate age if provided
-        if (authorDto.getAge() != null) {
-            if (authorDto.getAge() < 1) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Age must be at least 1"));
-            }
-            if (authorDto.getAge() > 125) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Age must not exceed 125"));
-            }
-        }
-
-        // Validate rating if provided
-        if (authorDto.getRating() != null) {
-            if (authorDto.getRating() < 0.0) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Rating cannot be negative"));
-            }
-            if (authorDto.getRating() > 5.0) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Rating cannot exceed 5.0"));
-            }
-        }
-
-        // Validate totalBooks if provided
-        if (authorDto.getTotalBooks() != null) {
-            if (authorDto.getTotalBooks() < 0) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Total books cannot be negative"));
-            }
-        }
-
-        // Validate wealth if provided
-        if (authorDto.getWealth() != null) {
-            if (authorDto.getWealth().compareTo(BigDecimal.ZERO) < 0) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Wealth cannot be negative"));
-            }
-        }
-
-        // Validate followers if provided
-        if (authorDto.getFollowers() != null) {
-            if (authorDto.getFollowers().compareTo(BigInteger.ZERO) < 0) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Followers cannot be negative"));
-            }
-        }
-
-        return null; // No validation errors
-    }
-
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> delete(@PathVariable Long id) {
-        if (!authorService.isExists(id)) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "Author not found"));
-        }
-
         authorService.delete(id);
         return ResponseEntity.noContent().build();
     }
-
-        // ✅ ADD HELPER METHOD FOR CHARACTER VALIDATION
-        private boolean containsInvalidCharacters(String name) {
-            // Allow letters, spaces, hyphens, apostrophes - common in names
-            String validNamePattern = "^[a-zA-Z\\s\\-'.]+$";
-
-            // Or more restrictive: only letters and spaces
-            // String validNamePattern = "^[a-zA-Z\\s]+$";
-
-            return !name.matches(validNamePattern);
-        }
 }
@@ -1,63 +1,379 @@
 package com.example.fullrestapi.Controllers;
 
+import com.example.fullrestapi.Repository.BookRepository;
 import com.example.fullrestapi.Service.BookService;
+import com.example.fullrestapi.admission.AdmissionProperties;
+import com.example.fullrestapi.domain.dto.BookBulkErrorDto;
+import com.example.fullrestapi.domain.dto.BookBulkResponseDto;
 import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.dto.BookFilterDto;
+import com.example.fullrestapi.domain.dto.CursorPageDto;
+import com.example.fullrestapi.domain.dto.RatingsDto;
 import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.exception.ResourceNotFoundException;
 import com.example.fullrestapi.mappers.Impl.BookMapperImpl;
+import com.example.fullrestapi.pagination.CountStrategy;
+import com.example.fullrestapi.pagination.CountedPage;
+import com.example.fullrestapi.pagination.KeysetCursor;
+import com.example.fullrestapi.ratings.RatingAppendQueue;
+import com.example.fullrestapi.validation.ValidationEngine;
+import com.example.fullrestapi.validation.ValidationMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.PersistenceException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 @RestController
 @RequestMapping("/books")
 public class BookController {
 
+    private static final int MAX_REPORTED_ERRORS = 100;
+
     private final BookService bookService;
     private final BookMapperImpl bookMapper;
+    private final ValidationEngine validationEngine;
+    private final RatingAppendQueue ratingAppendQueue;
+    private final AdmissionProperties admission;
+    private final ObjectReader bookReader;
+    private final ObjectWriter bookWriter;
+    private final int bulkChunkSize;
+    private final int exportWindowSize;
 
-    public BookController(BookService bookService, BookMapperImpl bookMapper) {
+    public BookController(BookService bookService, BookMapperImpl bookMapper, ValidationEngine validationEngine,
+                          RatingAppendQueue ratingAppendQueue, AdmissionProperties admission, ObjectMapper objectMapper,
+                          @Value("${app.books.bulk.chunk-size:500}") int bulkChunkSize,
+                          @Value("${app.books.export.window-size:500}") int exportWindowSize) {
         this.bookService = bookService;
         this.bookMapper = bookMapper;
+        this.validationEngine = validationEngine;
+        this.ratingAppendQueue = ratingAppendQueue;
+        this.admission = admission;
+        this.bookReader = objectMapper.readerFor(BookDto.class);
+        this.bookWriter = objectMapper.writerFor(BookDto.class).withRootValueSeparator("\n");
+        this.bulkChunkSize = bulkChunkSize;
+        this.exportWindowSize = exportWindowSize;
     }
 
     // Create a new book
     @PostMapping("/{isbn}")
     public ResponseEntity<BookDto> createBook(@PathVariable String isbn, @RequestBody BookDto bookDto) {
-        if (bookService.isExist(isbn)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // 409 if ISBN exists
-        }
+        validationEngine.validate(bookDto, ValidationMode.FULL);
+        // Plain INSERT; an existing ISBN violates books_pkey and is answered with 409
         BookEntity savedBook = bookService.save(isbn, bookMapper.mapFrom(bookDto));
         return ResponseEntity.status(HttpStatus.CREATED).body(bookMapper.mapTo(savedBook));
     }
 
+    // Bulk upsert from an NDJSON body, one book per line, read and written chunk by chunk
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BookBulkResponseDto> bulkUpsert(InputStream body) throws IOException {
+        BookBulkResponseDto response = new BookBulkResponseDto();
+        // Parallel lists: the same ISBN may appear on several lines, so errors are keyed by position
+        List<BookDto> chunk = new ArrayList<>(bulkChunkSize);
+        List<Long> chunkLines = new ArrayList<>(bulkChunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            response.setReceived(response.getReceived() + 1);
+
+            BookDto dto;
+            try {
+                dto = bookReader.readValue(line);
+            } catch (JsonProcessingException ex) {
+                reportBulkError(response, lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage());
+                continue;
+            }
+            if (dto.getIsbn() == null || dto.getIsbn().isBlank()) {
+                reportBulkError(response, lineNumber, null, "ISBN is required");
+                continue;
+            }
+            Map<String, String> invalid = validationEngine.check(dto, ValidationMode.FULL);
+            if (!invalid.isEmpty()) {
+                reportBulkError(response, lineNumber, dto.getIsbn(), invalid.entrySet().stream()
+                        .map(e -> e.getKey() + ": " + e.getValue())
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            chunk.add(dto);
+            chunkLines.add(lineNumber);
+
+            if (chunk.size() >= bulkChunkSize) {
+                flushBulkChunk(response, chunk, chunkLines);
+            }
+        }
+        flushBulkChunk(response, chunk, chunkLines);
+
+        return ResponseEntity.ok(response);
+    }
+
+    private void flushBulkChunk(BookBulkResponseDto response, List<BookDto> chunk, List<Long> chunkLines) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failures;
+        try {
+            failures = bookService.upsertAll(chunk.stream().map(bookMapper::mapFrom).toList());
+        } catch (PersistenceException | DataAccessException ex) {
+            // One row the database rejects rolls back the whole chunk. Replay it row by row, each in
+            // its own transaction, so the good rows are kept and only the offending lines are reported.
+            // Rows are mapped again from the DTOs: the failed attempt left ids and versions on the entities.
+            failures = new TreeMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    String error = bookService.upsertAll(List.of(bookMapper.mapFrom(chunk.get(i)))).get(0);
+                    if (error != null) {
+                        failures.put(i, error);
+                    }
+                } catch (PersistenceException | DataAccessException rowEx) {
+                    failures.put(i, rowError(rowEx));
+                }
+            }
+        }
+        response.setUpserted(response.getUpserted() + chunk.size() - failures.size());
+        failures.forEach((index, error) ->
+                reportBulkError(response, chunkLines.get(index), chunk.get(index).getIsbn(), error));
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private static String rowError(RuntimeException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return "Rejected by constraint " + violation.getConstraintName();
+            }
+        }
+        return NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+    }
+
+    private void reportBulkError(BookBulkResponseDto response, long line, String isbn, String error) {
+        response.setFailed(response.getFailed() + 1);
+        if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+            response.getErrors().add(BookBulkErrorDto.builder().line(line).isbn(isbn).error(error).build());
+        }
+    }
+
     // Partial update (also handles full updates)
     @PatchMapping("/{isbn}")
     public ResponseEntity<BookDto> updateBook(@PathVariable String isbn, @RequestBody BookDto bookDto) {
-        if (!bookService.isExist(isbn)) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build(); // 404 if ISBN doesn't exist
-        }
+        validationEngine.validate(bookDto, ValidationMode.PARTIAL);
+        // Unknown ISBNs raise ResourceNotFoundException (404)
         BookEntity updatedBook = bookService.partialUpdate(isbn, bookMapper.mapFrom(bookDto));
         return ResponseEntity.ok(bookMapper.mapTo(updatedBook));
     }
 
-    // Get all books
+    // Get all books, optionally filtered (?minPrice=&maxPrice=&published=&minPages=&maxPages=&authorId=&tag=)
+    // The page ETag is a digest of the ISBNs and versions on it; If-None-Match is checked against
+    // a version-only query of the same page before any book, author or collection is loaded.
+    // X-Total-Count-Strategy says whether totalElements is exact, cached or estimated (filtered: always exact)
     @GetMapping
-    public Page<BookDto> getAllBooks(Pageable pageable) {
-        return bookService.findAll(pageable).map(bookMapper::mapTo);
+    public ResponseEntity<Page<BookDto>> getAllBooks(BookFilterDto filter, Pageable pageable,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (filter.hasCriteria()) {
+            // Filtered pages still get an ETag, but it is only known once the page has been read
+            Page<BookEntity> page = bookService.findAll(filter, pageable);
+            String etag = ETags.bookPageOf(page);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .header(CountStrategy.HEADER, CountStrategy.EXACT.headerValue())
+                    .body(page.map(bookMapper::mapTo));
+        }
+        if (ifNoneMatch != null) {
+            String etag = ETags.bookPage(bookService.findVersions(pageable));
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        CountedPage<BookEntity> page = bookService.findAll(pageable);
+        return ResponseEntity.ok().eTag(ETags.bookPageOf(page))
+                .header(CountStrategy.HEADER, page.getCountStrategy().headerValue())
+                .body(page.map(bookMapper::mapTo));
+    }
+
+    // Full-text search over titles and tags; each term matches as a prefix ("jav" finds Java).
+    // Paged as a Slice (hasNext, no total): counting every match costs more than ranking the top ones
+    @GetMapping("/search")
+    public Slice<BookDto> searchBooks(@RequestParam("q") String query,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size) {
+        Slice<BookEntity> books = bookService.search(query,
+                PageRequest.of(Math.max(page, 0), admission.clampPageSize(size)));
+        return books.map(bookMapper::mapTo);
+    }
+
+    // Keyset pagination, opted into with ?after= (empty for the first page); no offset scan, no count(*)
+    @GetMapping(params = "after")
+    public CursorPageDto<BookDto> getBooksAfter(@RequestParam String after,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(defaultValue = "isbn") String sort) {
+        KeysetCursor cursor = KeysetCursor.decode(after, sort);
+        int limit = admission.clampPageSize(size);
+        String afterIsbn = cursor.isFirst() ? "" : cursor.getId();
+
+        // Fetch one extra row to learn whether another page exists
+        List<BookEntity> rows = switch (cursor.getSort()) {
+            case "isbn" -> bookService.findAllAfterIsbn(afterIsbn, limit + 1);
+            case "title" -> bookService.findAllAfterTitle(cursor.isFirst() ? "" : cursor.getKey(), afterIsbn, limit + 1);
+            default -> throw new IllegalArgumentException("Unsupported cursor sort: " + cursor.getSort());
+        };
+
+        boolean hasNext = rows.size() > limit;
+        List<BookEntity> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            BookEntity last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.after(cursor.getSort(), last.getTitle(), last.getIsbn()).encode();
+        }
+
+        return CursorPageDto.<BookDto>builder()
+                .content(page.stream().map(bookMapper::mapTo).toList())
+                .size(limit)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Export the whole catalog as NDJSON (default) or CSV, streamed straight from a database cursor
+    @GetMapping("/export")
+    public void exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"books.csv\"");
+            Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write("isbn,title,published,pages,price,author_id,author_name,tags,ratings\n");
+            bookService.exportAll(exportWindowSize, window -> {
+                try {
+                    for (BookEntity book : window) {
+                        writer.write(toCsvRow(book));
+                    }
+                    writer.flush();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.flush();
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            try (SequenceWriter writer = bookWriter.writeValues(response.getOutputStream())) {
+                bookService.exportAll(exportWindowSize, window -> {
+                    try {
+                        for (BookEntity book : window) {
+                            writer.write(bookMapper.mapTo(book));
+                        }
+                        writer.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        } else {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported export format: " + format);
+        }
+    }
+
+    private String toCsvRow(BookEntity book) {
+        return String.join(",",
+                csv(book.getIsbn()),
+                csv(book.getTitle()),
+                csv(book.getPublished()),
+                csv(book.getPages()),
+                csv(book.getPrice()),
+                csv(book.getAuthor() != null ? book.getAuthor().getId() : null),
+                csv(book.getAuthor() != null ? book.getAuthor().getName() : null),
+                csv(book.getTags() != null ? String.join("|", book.getTags()) : null),
+                csv(book.getRatings() != null
+                        ? book.getRatings().stream().map(String::valueOf).collect(Collectors.joining("|"))
+                        : null)) + "\n";
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
     }
 
     // Get book by ISBN
+    // The ETag covers the book and its embedded author; a match costs one version query
     @GetMapping("/{isbn}")
-    public ResponseEntity<BookDto> getBookByIsbn(@PathVariable String isbn) {
+    public ResponseEntity<BookDto> getBookByIsbn(@PathVariable String isbn,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<BookRepository.VersionView> version = bookService.findVersion(isbn);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.book(version.get()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.book(version.get())).build();
+            }
+        }
         return bookService.findById(isbn)
-                .map(bookMapper::mapTo)
-                .map(ResponseEntity::ok)
+                .map(book -> ResponseEntity.ok().eTag(ETags.book(book)).body(bookMapper.mapTo(book)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // Delete a book
+    // Appends ratings through the write-behind queue instead of rewriting the list with a PATCH.
+    // 202 once queued; with app.ratings.durability=committed, 204 after the batch commits (404 for an
+    // unknown ISBN, 202 if the commit takes longer than commit-timeout). A full queue answers 503.
+    @PostMapping("/{isbn}/ratings")
+    public ResponseEntity<Object> appendRatings(@PathVariable String isbn, @RequestBody RatingsDto ratings) {
+        validationEngine.validate(ratings, ValidationMode.FULL);
+        CompletableFuture<Boolean> written = ratingAppendQueue.append(isbn, ratings.getRatings());
+        if (!ratingAppendQueue.waitsForCommit()) {
+            return ResponseEntity.accepted().build();
+        }
+        Boolean found = ratingAppendQueue.awaitCommit(written);
+        if (found == null) {
+            return ResponseEntity.accepted().build();
+        }
+        if (!found) {
+            throw new ResourceNotFoundException("Book not found");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Delete a book (404 when nothing was deleted)
     @DeleteMapping("/{isbn}")
     public ResponseEntity<Void> deleteBook(@PathVariable String isbn) {
         bookService.delete(isbn);
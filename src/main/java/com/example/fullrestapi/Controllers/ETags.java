@@ -0,0 +1,75 @@
+package com.example.fullrestapi.Controllers;
+
+import com.example.fullrestapi.Repository.BookRepository;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.pagination.CountStrategy;
+import com.example.fullrestapi.pagination.CountedPage;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Strong ETags built from @Version columns only, so a conditional GET can be answered
+// from a version query without loading (or mapping and serializing) the entity itself
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String author(Long version) {
+        return "\"v" + version + "\"";
+    }
+
+    static String book(Long version, Long authorVersion) {
+        return "\"v" + version + ".a" + (authorVersion == null ? "-" : authorVersion) + "\"";
+    }
+
+    static String book(BookEntity book) {
+        return book(book.getVersion(), book.getAuthor() == null ? null : book.getAuthor().getVersion());
+    }
+
+    static String book(BookRepository.VersionView view) {
+        return book(view.getVersion(), view.getAuthorVersion());
+    }
+
+    // Digest of the page position, the total (unless estimated) and every book's ISBN and versions, in page order
+    static String bookPage(Page<BookRepository.VersionView> versions) {
+        return page(versions, versions.getContent().stream().map(v -> v.getIsbn() + book(v)).toList());
+    }
+
+    static String bookPageOf(Page<BookEntity> books) {
+        return page(books, books.getContent().stream().map(b -> b.getIsbn() + book(b)).toList());
+    }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored; "*" matches anything
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // An estimated total moves with the planner statistics (ANALYZE, autovacuum) while the rows stay
+    // the same, so it is left out; a client revalidating such a page keeps the estimate it has
+    private static String page(Page<?> page, List<String> members) {
+        StringBuilder key = new StringBuilder()
+                .append(page.getNumber()).append('/')
+                .append(page.getSize()).append('/')
+                .append(page.getSort());
+        if (!(page instanceof CountedPage<?> counted && counted.getCountStrategy() == CountStrategy.ESTIMATED)) {
+            key.append('/').append(page.getTotalElements());
+        }
+        members.forEach(member -> key.append('|').append(member));
+        return "\"p" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -1,15 +1,38 @@
 package com.example.fullrestapi.Repository;
 
 import com.example.fullrestapi.domain.entities.AuthorEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AuthorRepository extends CrudRepository<AuthorEntity, Long>,
         PagingAndSortingRepository<AuthorEntity, Long> {
 
-    boolean existsByName(String name);
+    // One round trip to check a whole batch of names
+    @Query("select a.name from AuthorEntity a where a.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // Page content without the count(*); the total comes from TotalCounter
+    @Query("select a from AuthorEntity a")
+    List<AuthorEntity> findPage(Pageable pageable);
+
+    // Answers conditional GETs without hydrating the entity or its collections
+    @Query("select a.version from AuthorEntity a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Keyset pages: seek past the last seen row instead of skipping an offset; List results skip count(*)
+    @Query("select a from AuthorEntity a where a.id > :id order by a.id")
+    List<AuthorEntity> findPageAfterId(@Param("id") Long id, Pageable pageable);
 
-    boolean existsByNameAndIdNot(String name, Long id); // For updates
+    // Row-value seek served by idx_authors_name_id; authors without a name never appear in this ordering
+    @Query("select a from AuthorEntity a where (a.name, a.id) > (:name, :id) order by a.name, a.id")
+    List<AuthorEntity> findPageAfterName(@Param("name") String name, @Param("id") Long id, Pageable pageable);
 }
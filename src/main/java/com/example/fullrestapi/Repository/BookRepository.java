@@ -1,11 +1,104 @@
 package com.example.fullrestapi.Repository;
 
 import com.example.fullrestapi.domain.entities.BookEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface BookRepository extends CrudRepository<BookEntity, String> , PagingAndSortingRepository<BookEntity, String> {
+public interface BookRepository extends CrudRepository<BookEntity, String> , PagingAndSortingRepository<BookEntity, String>,
+        JpaSpecificationExecutor<BookEntity> {
+
+    // Read paths join-fetch the author; tags, ratings and the author's collections are batch-fetched
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<BookEntity> findAll(Pageable pageable);
+
+    // Page content without the count(*); the total comes from TotalCounter
+    @EntityGraph(attributePaths = "author")
+    @Query("select b from BookEntity b")
+    List<BookEntity> findPage(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Optional<BookEntity> findById(String isbn);
+
+    // Filtered listing (BookSpecifications), fetched like findAll(Pageable)
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<BookEntity> findAll(Specification<BookEntity> spec, Pageable pageable);
+
+    // Versions of a book and its author: the book JSON embeds the author, so both feed the ETag
+    interface VersionView {
+        String getIsbn();
+
+        Long getVersion();
+
+        Long getAuthorVersion();
+    }
+
+    @Query("select b.isbn as isbn, b.version as version, a.version as authorVersion "
+            + "from BookEntity b left join b.author a where b.isbn = :isbn")
+    Optional<VersionView> findVersionByIsbn(@Param("isbn") String isbn);
+
+    // Same rows as findPage(Pageable) but only ISBNs and versions, used to answer If-None-Match on /books
+    @Query("select b.isbn as isbn, b.version as version, a.version as authorVersion "
+            + "from BookEntity b left join b.author a")
+    List<VersionView> findVersions(Pageable pageable);
+
+    // Full-text match on the GIN-indexed search_vector (BookSearchSchema), best rank first; a Slice
+    // reads one row past the page instead of counting every match
+    @Query(value = "select b.* from books b, to_tsquery('simple', :query) q where b.search_vector @@ q "
+            + "order by ts_rank(b.search_vector, q) desc, b.isbn", nativeQuery = true)
+    Slice<BookEntity> search(@Param("query") String tsQuery, Pageable pageable);
+
+    // One author's books in ISBN order, read from idx_books_author_id (author_id, isbn) without a sort step.
+    // No author fetch: BookServiceImpl.findAllByAuthor has that one author managed already.
+    @Query("select b from BookEntity b where b.author.id = :authorId")
+    Slice<BookEntity> findSliceByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    // Same, plus the count(*) for clients that asked for a total
+    @Query(value = "select b from BookEntity b where b.author.id = :authorId",
+            countQuery = "select count(b) from BookEntity b where b.author.id = :authorId")
+    Page<BookEntity> findPageByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    // Single DELETE (collection tables are cleaned up by Hibernate); returns the affected row count
+    @Modifying
+    @Query("delete from BookEntity b where b.isbn = :isbn")
+    int deleteBookByIsbn(@Param("isbn") String isbn);
+
+    // Server-side cursor over the whole catalog; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b from BookEntity b order by b.isbn")
+    Stream<BookEntity> streamAllBy();
+
+    // Keyset pages: seek past the last seen row instead of skipping an offset; List results skip count(*)
+    @EntityGraph(attributePaths = "author")
+    @Query("select b from BookEntity b where b.isbn > :isbn order by b.isbn")
+    List<BookEntity> findPageAfterIsbn(@Param("isbn") String isbn, Pageable pageable);
 
+    // Row-value seek served by idx_books_title_isbn; books without a title never appear in this ordering
+    @EntityGraph(attributePaths = "author")
+    @Query("select b from BookEntity b where (b.title, b.isbn) > (:title, :isbn) order by b.title, b.isbn")
+    List<BookEntity> findPageAfterTitle(@Param("title") String title, @Param("isbn") String isbn, Pageable pageable);
 }
@@ -0,0 +1,72 @@
+package com.example.fullrestapi.Repository;
+
+import com.example.fullrestapi.domain.dto.BookFilterDto;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Composable filters for BookRepository.findAll(Specification, Pageable). Each one matches an index
+// declared on BookEntity: author_id, (published, price), price, pages and book_tags(tag, book_isbn).
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<BookEntity> of(BookFilterDto filter) {
+        List<Specification<BookEntity>> specs = new ArrayList<>();
+        if (filter.getPublished() != null) specs.add(published(filter.getPublished()));
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null)
+            specs.add(priceBetween(filter.getMinPrice(), filter.getMaxPrice()));
+        if (filter.getMinPages() != null || filter.getMaxPages() != null)
+            specs.add(pagesBetween(filter.getMinPages(), filter.getMaxPages()));
+        if (filter.getAuthorId() != null) specs.add(byAuthor(filter.getAuthorId()));
+        if (filter.getTag() != null) specs.add(taggedWith(filter.getTag()));
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<BookEntity> published(boolean published) {
+        return (root, query, cb) -> cb.equal(root.get("published"), published);
+    }
+
+    // Either bound may be null (open range)
+    public static Specification<BookEntity> priceBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            if (min == null) return cb.lessThanOrEqualTo(root.get("price"), max);
+            if (max == null) return cb.greaterThanOrEqualTo(root.get("price"), min);
+            return cb.between(root.get("price"), min, max);
+        };
+    }
+
+    public static Specification<BookEntity> pagesBetween(Integer min, Integer max) {
+        return (root, query, cb) -> {
+            if (min == null) return cb.lessThanOrEqualTo(root.get("pages"), max);
+            if (max == null) return cb.greaterThanOrEqualTo(root.get("pages"), min);
+            return cb.between(root.get("pages"), min, max);
+        };
+    }
+
+    // Compares the foreign key column itself, without joining authors
+    public static Specification<BookEntity> byAuthor(Long authorId) {
+        return (root, query, cb) -> cb.equal(root.get("author").get("id"), authorId);
+    }
+
+    // EXISTS instead of a join so a book with the tag twice still appears once on the page. With the
+    // array-storage profile tags is a basic array column and the test becomes array containment.
+    public static Specification<BookEntity> taggedWith(String tag) {
+        return (root, query, cb) -> {
+            if (!(root.getModel().getAttribute("tags") instanceof PluralAttribute)) {
+                return cb.isTrue(cb.function("array_contains", Boolean.class, root.get("tags"), cb.literal(tag)));
+            }
+            Subquery<String> tagged = query.subquery(String.class);
+            Root<BookEntity> book = tagged.correlate(root);
+            tagged.select(book.get("isbn")).where(cb.equal(book.join("tags"), tag));
+            return cb.exists(tagged);
+        };
+    }
+}
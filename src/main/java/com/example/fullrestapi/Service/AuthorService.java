@@ -1,7 +1,8 @@
 package com.example.fullrestapi.Service;
 
 import com.example.fullrestapi.domain.entities.AuthorEntity;
-import org.springframework.data.domain.Page;
+import com.example.fullrestapi.domain.entities.AuthorStatsEntity;
+import com.example.fullrestapi.pagination.CountedPage;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -10,17 +11,30 @@ import java.util.Optional;
 public interface AuthorService {
     AuthorEntity save(AuthorEntity author);
 
+    // Inserts in JDBC batches; authors whose name is already taken are skipped and keep a null id
+    List<AuthorEntity> saveAll(List<AuthorEntity> authors);
+
     List<AuthorEntity> findAll();
 
-    Page<AuthorEntity> findAll(Pageable pageable);
+    // Total per app.pagination.total-count.strategy.authors
+    CountedPage<AuthorEntity> findAll(Pageable pageable);
+
+    List<AuthorEntity> findAllAfterId(Long id, int limit);
+
+    List<AuthorEntity> findAllAfterName(String name, Long id, int limit);
 
     Optional<AuthorEntity> findById(Long id);
 
-    boolean isExists(Long id);
+    // Version column only, for conditional GETs
+    Optional<Long> findVersion(Long id);
+
+    // Book count, ratings and price total kept by AuthorStatsAccumulator; empty when the author is unknown
+    Optional<AuthorStatsEntity> findStats(Long id);
+
+    // Full replacement of an existing author; throws ResourceNotFoundException when the id is unknown
+    AuthorEntity update(Long id, AuthorEntity authorEntity);
 
     AuthorEntity partialUpdate(Long id, AuthorEntity authorEntity);
 
     void delete(Long id);
-
-    boolean existsByNameAndIdNot(String name, Long id);
 }
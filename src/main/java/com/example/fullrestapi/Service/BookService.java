@@ -1,22 +1,53 @@
 package com.example.fullrestapi.Service;
 
+import com.example.fullrestapi.Repository.BookRepository;
+import com.example.fullrestapi.domain.dto.BookFilterDto;
 import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.pagination.CountedPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
     BookEntity save(String isbn, BookEntity book);
 
+    // Inserts or replaces books by ISBN in one transaction; returns the rejected positions in books with the reason
+    Map<Integer, String> upsertAll(List<BookEntity> books);
+
     List<BookEntity> findAll();
 
-    Page<BookEntity> findAll(Pageable pageable);
+    // Total per app.pagination.total-count.strategy.books
+    CountedPage<BookEntity> findAll(Pageable pageable);
+
+    // Only books matching every criterion set on the filter
+    Page<BookEntity> findAll(BookFilterDto filter, Pageable pageable);
+
+    List<BookEntity> findAllAfterIsbn(String isbn, int limit);
+
+    List<BookEntity> findAllAfterTitle(String title, String isbn, int limit);
+
+    // Walks the catalog through a database cursor, handing over windows of books that are detached afterwards
+    void exportAll(int windowSize, Consumer<List<BookEntity>> windowConsumer);
+
+    // Titles and tags matching every term of the free-text query (as prefixes), best match first
+    Slice<BookEntity> search(String query, Pageable pageable);
+
+    // Books of one author; a Page with the total when countTotal is set, otherwise a Slice without count(*).
+    // Throws ResourceNotFoundException when the author is unknown
+    Slice<BookEntity> findAllByAuthor(Long authorId, Pageable pageable, boolean countTotal);
 
     Optional<BookEntity> findById(String isbn);
 
-    boolean isExist(String isbn);
+    // Version columns only (book and author), for conditional GETs
+    Optional<BookRepository.VersionView> findVersion(String isbn);
+
+    // Same total as findAll(Pageable), so both pages digest to the same ETag
+    CountedPage<BookRepository.VersionView> findVersions(Pageable pageable);
 
     void delete(String isbn);
 
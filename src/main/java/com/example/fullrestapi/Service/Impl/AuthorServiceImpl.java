@@ -1,83 +1,191 @@
 package com.example.fullrestapi.Service.Impl;
 
 import com.example.fullrestapi.Repository.AuthorRepository;
+import com.example.fullrestapi.Repository.AuthorStatsRepository;
 import com.example.fullrestapi.Service.AuthorService;
 import com.example.fullrestapi.domain.dto.AuthorDto;
 import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.AuthorStatsEntity;
+import com.example.fullrestapi.exception.ResourceNotFoundException;
 import com.example.fullrestapi.mappers.Impl.AuthorMapperImpl;
-import org.springframework.data.domain.Page;
+import com.example.fullrestapi.pagination.CountedPage;
+import com.example.fullrestapi.pagination.TotalCounter;
+import com.example.fullrestapi.stats.AuthorStatsAccumulator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+// app.service{class,method,exception} latency histograms (management.observations.annotations)
+@Timed(value = "app.service", histogram = true)
 @Service
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final AuthorStatsRepository authorStatsRepository;
+    private final AuthorStatsAccumulator authorStats;
     private final AuthorMapperImpl authorMapper;
+    private final EntityManager entityManager;
+    private final TotalCounter totalCounter;
+    private final int batchSize;
 
-    public AuthorServiceImpl(AuthorRepository authorRepository, AuthorMapperImpl authorMapper) {
+    public AuthorServiceImpl(AuthorRepository authorRepository, AuthorStatsRepository authorStatsRepository,
+                             AuthorStatsAccumulator authorStats, AuthorMapperImpl authorMapper,
+                             EntityManager entityManager, TotalCounter totalCounter,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.authorRepository = authorRepository;
+        this.authorStatsRepository = authorStatsRepository;
+        this.authorStats = authorStats;
         this.authorMapper = authorMapper;
+        this.entityManager = entityManager;
+        this.totalCounter = totalCounter;
+        this.batchSize = batchSize;
     }
 
+    // Name uniqueness is enforced by uk_authors_name; a duplicate surfaces as DataIntegrityViolationException (409)
     @Override
     public AuthorEntity save(AuthorEntity author) {
-        if (author.getId() == null) { // creation
-            if (authorRepository.existsByName(author.getName())) {
-                throw new RuntimeException("Author with this name already exists");
+        AuthorEntity saved = authorRepository.save(author);
+        totalCounter.invalidate(AuthorEntity.TABLE);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public List<AuthorEntity> saveAll(List<AuthorEntity> authors) {
+        Set<String> names = new HashSet<>();
+        authors.forEach(author -> names.add(author.getName()));
+        if (names.isEmpty()) {
+            return List.of();
+        }
+
+        // Names already in the table, plus every name claimed earlier in this batch
+        Set<String> taken = new HashSet<>(authorRepository.findExistingNames(names));
+        List<AuthorEntity> saved = new ArrayList<>();
+        for (AuthorEntity author : authors) {
+            if (!taken.add(author.getName())) {
+                continue;
             }
-        } else { // update
-            if (authorRepository.existsByNameAndIdNot(author.getName(), author.getId())) {
-                throw new RuntimeException("Author with this name already exists");
+            author.setId(null);
+            entityManager.persist(author);
+            saved.add(author);
+
+            // Flush each full batch and drop it from the persistence context so memory stays flat
+            if (saved.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
             }
         }
-        return authorRepository.save(author);
+        if (!saved.isEmpty()) {
+            totalCounter.invalidate(AuthorEntity.TABLE);
+        }
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AuthorEntity> findAll() {
         return StreamSupport.stream(authorRepository.findAll().spliterator(),false).collect(Collectors.toList());
     }
 
     @Override
-    public Page<AuthorEntity> findAll(Pageable pageable) {
-        return authorRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public CountedPage<AuthorEntity> findAll(Pageable pageable) {
+        return totalCounter.page(AuthorEntity.TABLE, Preload.authors(authorRepository.findPage(pageable)), pageable,
+                authorRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorEntity> findAllAfterId(Long id, int limit) {
+        return Preload.authors(authorRepository.findPageAfterId(id, PageRequest.ofSize(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorEntity> findAllAfterName(String name, Long id, int limit) {
+        return Preload.authors(authorRepository.findPageAfterName(name, id, PageRequest.ofSize(limit)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<AuthorEntity> findById(Long id) {
-        return authorRepository.findById(id);
+        return authorRepository.findById(id).map(Preload::author);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return authorRepository.findVersionById(id);
     }
 
+    // No stats row yet means no book has been flushed for the author: zeros if the author exists
     @Override
-    public boolean isExists(Long id) {
-        return authorRepository.existsById(id);
+    @Transactional(readOnly = true)
+    public Optional<AuthorStatsEntity> findStats(Long id) {
+        return authorStatsRepository.findById(id)
+                .or(() -> authorRepository.existsById(id)
+                        ? Optional.of(AuthorStatsEntity.builder().authorId(id).priceTotal(BigDecimal.ZERO).build())
+                        : Optional.empty());
     }
 
     @Override
+    @Transactional
+    public AuthorEntity update(Long id, AuthorEntity authorEntity) {
+        // Loaded rather than bulk-updated: a bulk UPDATE would evict the whole authors cache region (see
+        // partialUpdate) and could not replace genres/scores, which live in their own tables. The load is
+        // usually a cache hit and is also the 404 check, so the database only sees the writes
+        AuthorEntity existing = authorRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found"));
+        existing.setName(authorEntity.getName());
+        existing.setAge(authorEntity.getAge());
+        existing.setActive(authorEntity.getActive());
+        existing.setRating(authorEntity.getRating());
+        existing.setTotalBooks(authorEntity.getTotalBooks());
+        existing.setGenres(authorEntity.getGenres());
+        existing.setScores(authorEntity.getScores());
+        existing.setWealth(authorEntity.getWealth());
+        existing.setFollowers(authorEntity.getFollowers());
+        return existing;
+    }
+
+    // Unlike books, no bulk UPDATE here: it would evict the whole authors cache region. The load is
+    // normally a cache hit, and @DynamicUpdate limits the UPDATE to the columns that changed
+    @Override
+    @Transactional
     public AuthorEntity partialUpdate(Long id, AuthorEntity authorEntity) {
         return authorRepository.findById(id)
                 .map(existing -> {
                     AuthorDto dto = authorMapper.mapTo(authorEntity);
                     authorMapper.mapPartial(dto, existing);
-                    return authorRepository.save(existing);
+                    return Preload.author(existing);
                 })
-                .orElseThrow(() -> new RuntimeException("Author not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found"));
     }
 
 
+    // Through the entity for the same reason as update: only this author leaves the cache. The load is
+    // usually a cache hit and is also the 404 check; Hibernate deletes the genres/scores rows with it
     @Override
+    @Transactional
     public void delete(Long id) {
-        authorRepository.deleteById(id);
-    }
-
-    @Override
-    public boolean existsByNameAndIdNot(String name, Long id) {
-        return authorRepository.existsByNameAndIdNot(name, id);
+        AuthorEntity author = authorRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Author not found"));
+        authorRepository.delete(author);
+        authorStatsRepository.deleteByAuthorId(id);
+        authorStats.authorDeleted(id);
+        totalCounter.invalidate(AuthorEntity.TABLE);
     }
 }
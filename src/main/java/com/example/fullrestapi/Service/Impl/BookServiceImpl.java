@@ -2,46 +2,172 @@ package com.example.fullrestapi.Service.Impl;
 
 import com.example.fullrestapi.Repository.AuthorRepository;
 import com.example.fullrestapi.Repository.BookRepository;
+import com.example.fullrestapi.Repository.BookSpecifications;
 import com.example.fullrestapi.Service.BookService;
 import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.dto.BookFilterDto;
 import com.example.fullrestapi.domain.entities.AuthorEntity;
 import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.exception.ResourceNotFoundException;
 import com.example.fullrestapi.mappers.Impl.BookMapperImpl;
+import com.example.fullrestapi.pagination.CountedPage;
+import com.example.fullrestapi.pagination.TotalCounter;
+import com.example.fullrestapi.search.SearchTerms;
+import com.example.fullrestapi.stats.AuthorStatsAccumulator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+// app.service{class,method,exception} latency histograms (management.observations.annotations)
+@Timed(value = "app.service", histogram = true)
 @Service
 public class BookServiceImpl implements BookService {
 
+    // What a book contributes to author_stats, read under the row lock taken for its delete
+    private static final String LOCK_FOR_DELETE = "select b.author_id, b.price, "
+            + "(select count(r.rating) from book_ratings r where r.book_isbn = b.isbn), "
+            + "(select coalesce(sum(r.rating), 0) from book_ratings r where r.book_isbn = b.isbn) "
+            + "from books b where b.isbn = :isbn for update of b";
+    private static final String LOCK_FOR_DELETE_ARRAYS = "select b.author_id, b.price, "
+            + "(select count(r) from unnest(b.ratings) r), (select coalesce(sum(r), 0) from unnest(b.ratings) r) "
+            + "from books b where b.isbn = :isbn for update of b";
+
     private final BookRepository bookRepository;
     private final BookMapperImpl bookMapper;
     private final AuthorRepository authorRepository;
+    private final EntityManager entityManager;
+    private final AuthorStatsAccumulator authorStats;
+    private final TotalCounter totalCounter;
+    private final boolean arrayStorage;
+    private final boolean postgres;
 
-    public BookServiceImpl(BookRepository bookRepository, BookMapperImpl bookMapper, AuthorRepository authorRepository) {
+    public BookServiceImpl(BookRepository bookRepository, BookMapperImpl bookMapper, AuthorRepository authorRepository,
+                           EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+                           AuthorStatsAccumulator authorStats, TotalCounter totalCounter) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
         this.authorRepository = authorRepository;
+        this.entityManager = entityManager;
+        this.authorStats = authorStats;
+        this.totalCounter = totalCounter;
+        // array-storage profile: ratings live in a column of the book row instead of book_ratings
+        this.arrayStorage = !(entityManagerFactory.getMetamodel().entity(BookEntity.class)
+                .getAttribute("ratings") instanceof PluralAttribute);
+        // updateColumns relies on UPDATE ... FROM ... RETURNING; other databases (the H2 tests) patch the entity
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
     }
 
+    // Always an INSERT: a taken ISBN fails on books_pkey at commit and is mapped to 409
     @Override
+    @Transactional
     public BookEntity save(String isbn, BookEntity book) {
         if (book.getAuthor() != null && book.getAuthor().getId() != null) {
             AuthorEntity existingAuthor = authorRepository.findById(book.getAuthor().getId())
                     .orElseThrow(() -> new RuntimeException("Author not found"));
 
             book.setAuthor(mergeAuthorFields(existingAuthor, book.getAuthor()));
+        } else if (book.getAuthor() != null) {
+            totalCounter.invalidate(AuthorEntity.TABLE);      // inserted by cascade
         }
         book.setIsbn(isbn);
-        return bookRepository.save(book);
+        entityManager.persist(book);
+        authorStats.add(book);
+        totalCounter.invalidate(BookEntity.TABLE);
+        return Preload.book(book);
     }
 
     @Override
+    @Transactional
+    public Map<Integer, String> upsertAll(List<BookEntity> books) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+
+        // Resolve every referenced author with a single IN query
+        Set<Long> authorIds = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (BookEntity book : books) {
+            isbns.add(book.getIsbn());
+            if (book.getAuthor() != null && book.getAuthor().getId() != null) {
+                authorIds.add(book.getAuthor().getId());
+            }
+        }
+        Map<Long, AuthorEntity> authors = new HashMap<>();
+        authorRepository.findAllById(authorIds).forEach(author -> authors.put(author.getId(), author));
+
+        // Same for the books that already exist, so each row is either an update or a plain INSERT
+        Map<String, BookEntity> existingBooks = new HashMap<>();
+        bookRepository.findAllById(isbns).forEach(book -> existingBooks.put(book.getIsbn(), book));
+
+        for (int i = 0; i < books.size(); i++) {
+            BookEntity book = books.get(i);
+            AuthorEntity author = book.getAuthor();
+            if (author == null) {
+                failures.put(i, "Author is required");
+                continue;
+            }
+            if (author.getId() != null) {
+                AuthorEntity existingAuthor = authors.get(author.getId());
+                if (existingAuthor == null) {
+                    failures.put(i, "Author not found");
+                    continue;
+                }
+                author = mergeAuthorFields(existingAuthor, author);
+            }
+
+            BookEntity existing = existingBooks.get(book.getIsbn());
+            if (existing != null) {
+                authorStats.remove(existing);
+                existing.setTitle(book.getTitle());
+                existing.setPublished(book.getPublished());
+                existing.setPages(book.getPages());
+                existing.setPrice(book.getPrice());
+                existing.setAuthor(author);
+                existing.setTags(book.getTags());
+                existing.setRatings(book.getRatings());
+                authorStats.add(existing);
+            } else {
+                book.setAuthor(author);
+                entityManager.persist(book);
+                authorStats.add(book);
+                existingBooks.put(book.getIsbn(), book);
+                totalCounter.invalidate(BookEntity.TABLE);
+            }
+        }
+
+        // Write the chunk in JDBC batches and release it before the next one arrives
+        entityManager.flush();
+        entityManager.clear();
+        return failures;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookEntity> findAll() {
         return StreamSupport
                 .stream(bookRepository.findAll().spliterator(),false)
@@ -49,29 +175,132 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public Page<BookEntity> findAll(Pageable pageable) {
-        return bookRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public CountedPage<BookEntity> findAll(Pageable pageable) {
+        return totalCounter.page(BookEntity.TABLE, Preload.books(bookRepository.findPage(pageable)), pageable,
+                bookRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookEntity> findAll(BookFilterDto filter, Pageable pageable) {
+        return Preload.books(bookRepository.findAll(BookSpecifications.of(filter), pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookEntity> findAllAfterIsbn(String isbn, int limit) {
+        return Preload.books(bookRepository.findPageAfterIsbn(isbn, PageRequest.ofSize(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookEntity> findAllAfterTitle(String title, String isbn, int limit) {
+        return Preload.books(bookRepository.findPageAfterTitle(title, isbn, PageRequest.ofSize(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(int windowSize, Consumer<List<BookEntity>> windowConsumer) {
+        try (Stream<BookEntity> books = bookRepository.streamAllBy()) {
+            List<BookEntity> window = new ArrayList<>(windowSize);
+            Iterator<BookEntity> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                window.add(iterator.next());
+                if (window.size() == windowSize) {
+                    exportWindow(window, windowConsumer);
+                }
+            }
+            exportWindow(window, windowConsumer);
+        }
+    }
+
+    private void exportWindow(List<BookEntity> window, Consumer<List<BookEntity>> windowConsumer) {
+        if (window.isEmpty()) {
+            return;
+        }
+        // Lazy associations touched by the consumer are batch-fetched for the whole window,
+        // then everything is detached so the persistence context never grows past one window
+        windowConsumer.accept(window);
+        window.clear();
+        entityManager.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookEntity> search(String query, Pageable pageable) {
+        return Preload.books(bookRepository.search(SearchTerms.toPrefixQuery(query), pageable));
     }
 
+    // The author is loaded first (usually an L2 cache hit), so each book's author reference resolves to
+    // that managed instance: no author columns repeated on every row and no author load per book
     @Override
+    @Transactional(readOnly = true)
+    public Slice<BookEntity> findAllByAuthor(Long authorId, Pageable pageable, boolean countTotal) {
+        if (authorRepository.findById(authorId).isEmpty()) {
+            throw new ResourceNotFoundException("Author not found");
+        }
+        return Preload.books(countTotal
+                ? bookRepository.findPageByAuthorId(authorId, pageable)
+                : bookRepository.findSliceByAuthorId(authorId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<BookEntity> findById(String isbn) {
-        return bookRepository.findById(isbn);
+        return bookRepository.findById(isbn).map(Preload::book);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BookRepository.VersionView> findVersion(String isbn) {
+        return bookRepository.findVersionByIsbn(isbn);
     }
 
     @Override
-    public boolean isExist(String isbn) {
-        return bookRepository.existsById(isbn);
+    @Transactional(readOnly = true)
+    public CountedPage<BookRepository.VersionView> findVersions(Pageable pageable) {
+        return totalCounter.page(BookEntity.TABLE, bookRepository.findVersions(pageable), pageable,
+                bookRepository::count);
     }
 
+    // Locks the row and returns what it contributes to author_stats, without hydrating the book or its
+    // ratings. Deleting in the same statement is not safe: the rating rows would be deleted from the
+    // statement's snapshot, missing any RatingBatchWriter committed while the row lock was awaited.
     @Override
+    @Transactional
     public void delete(String isbn) {
-        bookRepository.deleteById(isbn);
+        Query lock = entityManager.createNativeQuery(arrayStorage ? LOCK_FOR_DELETE_ARRAYS : LOCK_FOR_DELETE, Object[].class)
+                .setParameter("isbn", isbn);
+        lock.unwrap(NativeQuery.class).addSynchronizedEntityClass(BookEntity.class);
+        List<?> rows = lock.getResultList();
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Book not found");
+        }
+        Object[] row = (Object[]) rows.get(0);
+        bookRepository.deleteBookByIsbn(isbn);
+        authorStats.bookDeleted(((Number) row[0]).longValue(), (BigDecimal) row[1],
+                ((Number) row[2]).longValue(), ((Number) row[3]).doubleValue());
+        totalCounter.invalidate(BookEntity.TABLE);
     }
 
     @Override
+    @Transactional
     public BookEntity partialUpdate(String isbn, BookEntity bookEntity) {
+        if (postgres && bookEntity.getAuthor() == null && bookEntity.getTags() == null
+                && bookEntity.getRatings() == null) {
+            return updateColumns(isbn, bookEntity);
+        }
         return bookRepository.findById(isbn)
                 .map(existing -> {
+                    // Only the author, price and ratings count towards author_stats. A tags patch leaves the
+                    // stats alone, so the ratings collection is neither loaded nor rewritten; the collection
+                    // that is present is replaced without reading its old elements.
+                    boolean movesStats = bookEntity.getAuthor() != null || bookEntity.getPrice() != null
+                            || bookEntity.getRatings() != null;
+                    if (movesStats) {
+                        authorStats.remove(existing);
+                    }
                     BookDto dto = bookMapper.mapTo(bookEntity);
                     bookMapper.mapPartial(dto, existing);
 
@@ -87,9 +316,50 @@ public class BookServiceImpl implements BookService {
                         }
                     }
 
-                    return bookRepository.save(existing);
+                    if (movesStats) {
+                        authorStats.add(existing);
+                    }
+                    return Preload.book(existing);
                 })
-                .orElseThrow(() -> new RuntimeException("Book not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
+    }
+
+    // Scalar-only patches (the price/published hot path) skip the read-modify-write: one UPDATE of the
+    // supplied columns plus the version, then the book row alone is read back. Its author proxy is
+    // resolved from the second-level cache, and tags/ratings load only when the response needs them.
+    private BookEntity updateColumns(String isbn, BookEntity patch) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (patch.getTitle() != null) columns.put("title", patch.getTitle());
+        if (patch.getPublished() != null) columns.put("published", patch.getPublished());
+        if (patch.getPages() != null) columns.put("pages", patch.getPages());
+        if (patch.getPrice() != null) columns.put("price", patch.getPrice());
+
+        // Nothing to change: no write, so the version (and every ETag derived from it) stays put
+        if (columns.isEmpty()) {
+            return bookRepository.findById(isbn).map(Preload::book)
+                    .orElseThrow(() -> new ResourceNotFoundException("Book not found"));
+        }
+
+        // A price change moves the author's total by the difference, so the statement hands back the old
+        // price: the CTE locks the row (the UPDATE needs that lock anyway) and RETURNING reads from it.
+        StringBuilder sql = new StringBuilder("with old as (select price, author_id from books where isbn = :isbn for update) ")
+                .append("update books b set ");
+        columns.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("version = b.version + 1 from old where b.isbn = :isbn returning old.price, old.author_id");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Object[].class).setParameter("isbn", isbn);
+        columns.forEach(query::setParameter);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(BookEntity.class);
+
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Book not found");
+        }
+        Object[] before = (Object[]) rows.get(0);
+        if (patch.getPrice() != null) {
+            authorStats.priceChanged(((Number) before[1]).longValue(), (BigDecimal) before[0], patch.getPrice());
+        }
+        return Preload.book(entityManager.find(BookEntity.class, isbn));
     }
 
     private AuthorEntity mergeAuthorFields(AuthorEntity existingAuthor, AuthorEntity newAuthor) {
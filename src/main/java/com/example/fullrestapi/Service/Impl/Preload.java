@@ -0,0 +1,42 @@
+package com.example.fullrestapi.Service.Impl;
+
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import org.hibernate.Hibernate;
+
+// Initializes what the DTO mappers read (a book's tags, ratings and author, an author's genres and scores)
+// before the service transaction ends: with open-in-view off (virtual-threads profile) the controllers map
+// detached entities. @BatchSize makes the first touch of each collection load it for up to 100 owners, so
+// a page costs the same queries it did when the mappers triggered them. Array columns are plain lists.
+final class Preload {
+
+    private Preload() {
+    }
+
+    static BookEntity book(BookEntity book) {
+        if (book != null) {
+            Hibernate.initialize(book.getTags());
+            Hibernate.initialize(book.getRatings());
+            author(book.getAuthor());
+        }
+        return book;
+    }
+
+    static <T extends Iterable<BookEntity>> T books(T books) {
+        books.forEach(Preload::book);
+        return books;
+    }
+
+    static AuthorEntity author(AuthorEntity author) {
+        if (author != null) {
+            Hibernate.initialize(author.getGenres());
+            Hibernate.initialize(author.getScores());
+        }
+        return author;
+    }
+
+    static <T extends Iterable<AuthorEntity>> T authors(T authors) {
+        authors.forEach(Preload::author);
+        return authors;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.fullrestapi.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the controllers (see app.admission). Each endpoint class gets its
+ * own concurrency limit, so list scans, exports and writes cannot take every pooled connection and
+ * leave cheap lookups queuing behind them. Requests over a rate limit get 429 and requests that
+ * find their class full get 503, both at once with Retry-After, before any connection is taken.
+ * Rejections are counted in app.admission.rejected{class,reason}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final long CONCURRENCY_RETRY_AFTER_SECONDS = 1;
+
+    private final int maxPageSize;
+    private final List<EndpointLimiter> limiters;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.maxPageSize = properties.getMaxPageSize();
+        this.limiters = properties.getClasses().entrySet().stream()
+                .map(entry -> new EndpointLimiter(entry.getKey(), entry.getValue(), meterRegistry))
+                .toList();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointLimiter limiter = resolve(request);
+        String endpointClass = limiter == null ? "none" : limiter.getName();
+
+        if (limiter != null && exceedsMaxPageSize(request)) {
+            reject(response, endpointClass, "page-size", HttpStatus.BAD_REQUEST, 0,
+                    "size must not exceed " + maxPageSize);
+            return;
+        }
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiter.tryTakeToken();
+        if (waitNanos > 0) {
+            reject(response, endpointClass, "rate", HttpStatus.TOO_MANY_REQUESTS,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)), "Too many requests");
+            return;
+        }
+        boolean entered;
+        try {
+            entered = limiter.tryEnter();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            reject(response, endpointClass, "concurrency", HttpStatus.SERVICE_UNAVAILABLE,
+                    CONCURRENCY_RETRY_AFTER_SECONDS, "Server is busy, try again shortly");
+            return;
+        }
+
+        boolean releasedLater = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The slot stays taken until the async response is complete
+                request.getAsyncContext().addListener(new ExitOnComplete(limiter));
+                releasedLater = true;
+            }
+        } finally {
+            if (!releasedLater) {
+                limiter.exit();
+            }
+        }
+    }
+
+    private EndpointLimiter resolve(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (EndpointLimiter limiter : limiters) {
+            if (limiter.matches(request.getMethod(), path)) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+
+    // Classified endpoints only; everything else clamps ?size= to the same limit. Malformed sizes are
+    // left to the controllers
+    private boolean exceedsMaxPageSize(HttpServletRequest request) {
+        String size = request.getParameter("size");
+        if (!"GET".equals(request.getMethod()) || size == null) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(size.trim()) > maxPageSize;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private void reject(HttpServletResponse response, String endpointClass, String reason, HttpStatus status,
+                        long retryAfterSeconds, String message) throws IOException {
+        meterRegistry.counter("app.admission.rejected", "class", endpointClass, "reason", reason).increment();
+        response.setStatus(status.value());
+        if (retryAfterSeconds > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    // onComplete also follows a timeout or an error, so the slot is released exactly once
+    private record ExitOnComplete(EndpointLimiter limiter) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.exit();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
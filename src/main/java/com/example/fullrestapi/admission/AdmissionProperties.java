@@ -0,0 +1,47 @@
+package com.example.fullrestapi.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+
+    // The one page size limit: GET ?size= above it is rejected with 400 on classified endpoints, and every
+    // other size parameter (controllers, Pageable arguments, the reactive read API) is clamped to it
+    private int maxPageSize = 500;
+
+    // Keyed by a descriptive name; the first entry (in file order) matching method and path wins.
+    // Requests no entry matches are not limited.
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    public int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    @Data
+    public static class EndpointClass {
+
+        // Path patterns as in @RequestMapping, e.g. /books or /books/{isbn}
+        private List<String> paths = new ArrayList<>();
+
+        // Empty matches every method
+        private List<String> methods = new ArrayList<>();
+
+        // Requests of this class in progress at once (0: no limit); the rest wait up to maxWait, then get 503
+        private int maxConcurrent;
+
+        private Duration maxWait = Duration.ZERO;
+
+        // Sustained requests per second (0: no limit) and how many may arrive at once; beyond that 429
+        private double ratePerSecond;
+
+        private int burst = 1;
+    }
+}
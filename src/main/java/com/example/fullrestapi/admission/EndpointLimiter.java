@@ -0,0 +1,73 @@
+package com.example.fullrestapi.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// One endpoint class: a bulkhead (semaphore) bounding its concurrent requests plus an optional rate limit.
+// Exports app.admission.in-flight and app.admission.queued per class.
+final class EndpointLimiter {
+
+    private final String name;
+    private final List<PathPattern> patterns;
+    private final Set<String> methods;
+    private final int maxConcurrent;
+    private final Semaphore permits;          // null: no concurrency limit
+    private final long maxWaitNanos;
+    private final TokenBucket bucket;         // null: no rate limit
+
+    EndpointLimiter(String name, AdmissionProperties.EndpointClass config, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.patterns = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.methods = config.getMethods().stream().map(m -> m.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+        this.maxConcurrent = config.getMaxConcurrent();
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.bucket = config.getRatePerSecond() > 0 ? new TokenBucket(config.getRatePerSecond(), config.getBurst()) : null;
+
+        if (permits != null) {
+            Gauge.builder("app.admission.in-flight", permits, p -> maxConcurrent - p.availablePermits())
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("app.admission.queued", permits, Semaphore::getQueueLength)
+                    .tag("class", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean matches(String method, PathContainer path) {
+        return (methods.isEmpty() || methods.contains(method)) && patterns.stream().anyMatch(p -> p.matches(path));
+    }
+
+    // 0 when admitted by the rate limit, otherwise nanoseconds until the next token
+    long tryTakeToken() {
+        return bucket == null ? 0 : bucket.tryTake();
+    }
+
+    // Waits at most maxWait for a slot; a full class fails fast instead of queuing without bound
+    boolean tryEnter() throws InterruptedException {
+        if (permits == null) {
+            return true;
+        }
+        return maxWaitNanos > 0 ? permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS) : permits.tryAcquire();
+    }
+
+    void exit() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+}
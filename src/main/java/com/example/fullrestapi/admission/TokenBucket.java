@@ -0,0 +1,34 @@
+package com.example.fullrestapi.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in its GCRA form: the whole state is one "theoretical arrival time" moved forward by
+// CAS, so admitting a request never takes a lock. Earns ratePerSecond tokens, banks at most burst.
+final class TokenBucket {
+
+    private final long intervalNanos;       // time to earn one token
+    private final long toleranceNanos;      // how far arrivals may run ahead of the clock: burst - 1 tokens
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    // 0 when a token was taken, otherwise the nanoseconds until one will be available
+    long tryTake() {
+        long now = System.nanoTime();
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = tat - now > 0 ? tat : now;
+            long ahead = base - now;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.fullrestapi.config;
+
+import com.example.fullrestapi.domain.entities.BookEntity;
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.mapping.Collection;
+
+import java.util.Set;
+
+/**
+ * GIN index on books.tags when the array-storage profile maps tags as an array column, so the ?tag=
+ * filter (array containment) does not scan every book. It replaces idx_book_tags_tag, which lives on
+ * the side table and only exists in the default layout. Registered through META-INF/services like
+ * BookSearchSchema; an existing database gets it from db/array-storage-migrate.sql.
+ */
+public class ArrayStorageSchema implements AdditionalMappingContributor {
+
+    private static final String[] CREATE = {
+            "create index idx_books_tags on books using gin (tags)"
+    };
+
+    private static final String[] DROP = {
+            "drop index if exists idx_books_tags"
+    };
+
+    @Override
+    public String getContributorName() {
+        return "array-storage";
+    }
+
+    // Runs after the entities are bound, so the mapping in effect (orm.xml side tables or the annotated arrays) is known
+    @Override
+    public void contribute(AdditionalMappingContributions contributions, InFlightMetadataCollector metadata,
+                           ResourceStreamLocator resourceStreamLocator, MetadataBuildingContext buildingContext) {
+        if (metadata.getEntityBinding(BookEntity.class.getName()).getProperty("tags").getValue() instanceof Collection) {
+            return;
+        }
+        contributions.contributeAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                Set.of(PostgreSQLDialect.class.getName()), null, null, CREATE, DROP));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.fullrestapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Bounded in-process cache for authors, plugged in as Hibernate's second-level cache.
+ * Regions are READ_WRITE, so every save, partial update and delete that goes through the
+ * entity manager refreshes or invalidates the entry in the same transaction; findById and
+ * the author proxies on books are answered from memory.
+ */
+@Configuration
+@EnableConfigurationProperties(AuthorCacheProperties.class)
+public class AuthorCacheConfig {
+
+    public static final List<String> AUTHOR_REGIONS = List.of("authors", "authors.genres", "authors.scores");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager authorCacheManager(AuthorCacheProperties properties) {
+        // A private URI per application context so test contexts never share cached rows
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:fullrestapi:author-cache:" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+
+        for (String region : AUTHOR_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.getExpireAfterWrite().toNanos()));
+            configuration.setStatisticsEnabled(true);   // hits, misses, evictions
+            configuration.setManagementEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer authorCacheHibernateProperties(CacheManager authorCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, authorCacheManager);
+        };
+    }
+}
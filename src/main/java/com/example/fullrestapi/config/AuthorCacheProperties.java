@@ -0,0 +1,17 @@
+package com.example.fullrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache.authors")
+public class AuthorCacheProperties {
+
+    // Upper bound on cached authors (each collection region is bounded the same way)
+    private long maximumSize = 10_000;
+
+    // Entries are reloaded from PostgreSQL at the latest this long after they were written
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
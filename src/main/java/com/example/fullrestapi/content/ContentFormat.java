@@ -0,0 +1,20 @@
+package com.example.fullrestapi.content;
+
+import org.springframework.http.MediaType;
+
+// Response encodings an endpoint can be opened up to; all three go through Jackson and the same DTOs
+public enum ContentFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    ContentFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.fullrestapi.content;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Binary response formats next to JSON. CBOR and Smile are produced by Jackson from the same DTOs,
+ * so there is no separate schema to keep in sync. JSON stays first in the converter list and remains
+ * the answer to Accept: *&#47;*; which endpoint may answer with which format, and whether it is gzipped,
+ * is set per endpoint under app.content.
+ */
+@Configuration
+@EnableConfigurationProperties(ContentProperties.class)
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final ContentPolicyResolver policyResolver;
+
+    public ContentNegotiationConfig(ContentPolicyResolver policyResolver) {
+        this.policyResolver = policyResolver;
+    }
+
+    // Built from Boot's builder so spring.jackson.* settings apply to the binary formats too
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ProducibleFormatsInterceptor(policyResolver));
+    }
+}
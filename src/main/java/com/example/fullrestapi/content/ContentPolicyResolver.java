@@ -0,0 +1,59 @@
+package com.example.fullrestapi.content;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Maps a request to the formats and compression configured for its endpoint; patterns are parsed once
+@Component
+public class ContentPolicyResolver {
+
+    public record ResolvedPolicy(List<MediaType> mediaTypes, boolean compress, long minResponseSize) {
+    }
+
+    private record Rule(List<PathPattern> patterns, Set<String> methods, ResolvedPolicy policy) {
+
+        boolean matches(String method, PathContainer path) {
+            return methods.contains(method) && patterns.stream().anyMatch(pattern -> pattern.matches(path));
+        }
+    }
+
+    private final List<Rule> rules;
+    private final ResolvedPolicy defaults;
+
+    public ContentPolicyResolver(ContentProperties properties) {
+        ContentProperties.Policy base = properties.getDefaults();
+        this.defaults = resolve(base.getFormats(), base.getCompression());
+        this.rules = properties.getEndpoints().values().stream()
+                .map(endpoint -> new Rule(
+                        endpoint.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                        endpoint.getMethods().stream().map(m -> m.toUpperCase(Locale.ROOT)).collect(Collectors.toSet()),
+                        resolve(endpoint.getFormats() != null ? endpoint.getFormats() : base.getFormats(),
+                                endpoint.getCompression() != null ? endpoint.getCompression() : base.getCompression())))
+                .toList();
+    }
+
+    public ResolvedPolicy resolve(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer container = PathContainer.parsePath(path);
+        for (Rule rule : rules) {
+            if (rule.matches(request.getMethod(), container)) {
+                return rule.policy();
+            }
+        }
+        return defaults;
+    }
+
+    private static ResolvedPolicy resolve(List<ContentFormat> formats, ContentProperties.Compression compression) {
+        return new ResolvedPolicy(formats.stream().map(ContentFormat::getMediaType).toList(),
+                compression.isEnabled(), compression.getMinResponseSize().toBytes());
+    }
+}
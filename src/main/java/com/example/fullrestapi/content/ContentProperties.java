@@ -0,0 +1,54 @@
+package com.example.fullrestapi.content;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.content")
+public class ContentProperties {
+
+    // Used by every request that no entry in endpoints matches
+    private Policy defaults = new Policy();
+
+    // Keyed by a descriptive name; the first entry (in file order) matching method and path wins
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Data
+    public static class Policy {
+
+        // Formats the endpoint may answer with; empty leaves negotiation to the handler's own mapping
+        private List<ContentFormat> formats = new ArrayList<>();
+
+        private Compression compression = new Compression();
+    }
+
+    @Data
+    public static class Compression {
+
+        // gzip, only when the client sends Accept-Encoding: gzip
+        private boolean enabled = false;
+
+        // Bodies smaller than this are sent as-is; the gzip header and CPU aren't worth it
+        private DataSize minResponseSize = DataSize.ofKilobytes(2);
+    }
+
+    @Data
+    public static class Endpoint {
+
+        // Path patterns as in @RequestMapping, e.g. /books or /books/{isbn}
+        private List<String> paths = new ArrayList<>();
+
+        private List<String> methods = new ArrayList<>(List.of("GET"));
+
+        // Unset values fall back to defaults
+        private List<ContentFormat> formats;
+
+        private Compression compression;
+    }
+}
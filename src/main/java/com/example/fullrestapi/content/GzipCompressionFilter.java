@@ -0,0 +1,52 @@
+package com.example.fullrestapi.content;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Per-endpoint gzip (see app.content). Container-wide server.compression can't be scoped to
+// endpoints, so compression is done here and server.compression stays off.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class GzipCompressionFilter extends OncePerRequestFilter {
+
+    private final ContentPolicyResolver policyResolver;
+
+    public GzipCompressionFilter(ContentPolicyResolver policyResolver) {
+        this.policyResolver = policyResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentPolicyResolver.ResolvedPolicy policy = policyResolver.resolve(request);
+        if (!policy.compress() || "HEAD".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        GzipResponseWrapper wrapper = new GzipResponseWrapper(response, policy.minResponseSize());
+        chain.doFilter(request, wrapper);
+        wrapper.finish();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.fullrestapi.content;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPOutputStream;
+
+// Holds the body back until it reaches the threshold: small bodies go out unchanged with their
+// length, larger ones switch to gzip (sync-flushed, so streamed responses keep streaming)
+class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+    private final long minResponseSize;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private OutputStream target;            // null while still buffering
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    GzipResponseWrapper(HttpServletResponse response, long minResponseSize) {
+        super(response);
+        this.minResponseSize = minResponseSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (outputStream == null) {
+            outputStream = new ThresholdOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            outputStream = new ThresholdOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    // The final length is only known once we decide whether to compress
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target != null) {
+            target.flush();
+            super.flushBuffer();
+        }
+        // while buffering, committing now would fix the headers before Content-Encoding is decided
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (target != null) {
+            throw new IllegalStateException("Response body has already been sent");
+        }
+        pending.reset();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        super.reset();
+    }
+
+    // Called by the filter after the chain: writes a small body as-is or completes the gzip stream
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (target == null) {
+            if (pending.size() > 0) {
+                super.setContentLengthLong(pending.size());
+                pending.writeTo(super.getOutputStream());
+            }
+        } else if (target instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (target == null) {
+            pending.write(bytes, offset, length);
+            if (pending.size() < minResponseSize) {
+                return;
+            }
+            target = startBody();
+            pending.writeTo(target);
+            pending.reset();
+            return;
+        }
+        target.write(bytes, offset, length);
+    }
+
+    private OutputStream startBody() throws IOException {
+        if (isCommitted() || getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return super.getOutputStream();
+        }
+        super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // The gzipped bytes differ from the identity ones, so a strong validator must become weak
+        String etag = getHeader(HttpHeaders.ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            super.setHeader(HttpHeaders.ETAG, "W/" + etag);
+        }
+        return new GZIPOutputStream(super.getOutputStream(), 8192, true);
+    }
+
+    private class ThresholdOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            GzipResponseWrapper.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            GzipResponseWrapper.this.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Async IO is not supported by the gzip filter");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.fullrestapi.content;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+// Narrows what the message converters may produce for this request to the endpoint's configured
+// formats, exactly as a produces = {...} on the mapping would (unsupported Accept -> 406)
+class ProducibleFormatsInterceptor implements HandlerInterceptor {
+
+    private final ContentPolicyResolver policyResolver;
+
+    ProducibleFormatsInterceptor(ContentPolicyResolver policyResolver) {
+        this.policyResolver = policyResolver;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            List<MediaType> formats = policyResolver.resolve(request).mediaTypes();
+            if (!formats.isEmpty()) {
+                request.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, new LinkedHashSet<>(formats));
+            }
+        }
+        return true;
+    }
+}
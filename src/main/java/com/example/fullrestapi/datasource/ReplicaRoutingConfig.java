@@ -0,0 +1,97 @@
+package com.example.fullrestapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary plus read replicas, active once app.datasource.replicas is configured; otherwise Boot's
+ * single auto-configured pool is used as before. The primary keeps all spring.datasource.* settings.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaSet replicaSet(ReplicaRoutingProperties properties, DataSourceProperties primary,
+                                 HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica config = properties.getReplicas().get(i);
+            String name = "replica-" + i;
+
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(config.getUrl());
+            pool.setUsername(config.getUsername() != null ? config.getUsername() : primary.determineUsername());
+            pool.setPassword(config.getPassword() != null ? config.getPassword() : primary.determinePassword());
+            pool.setMaximumPoolSize(properties.getPoolSize());
+            pool.setReadOnly(true);
+            pool.setInitializationFailTimeout(-1);   // a replica that is down must not stop startup
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaSet.Replica(name, pool));
+        }
+
+        ReplicaSet replicaSet = new ReplicaSet(replicas, primaryDataSource, properties.isReadYourWrites(),
+                properties.getHealthCheckInterval().toMillis());
+        replicaSet.getReplicas().forEach(replica -> Gauge.builder("app.datasource.replica.up", replica,
+                        r -> r.isHealthy() ? 1 : 0)
+                .tag("replica", replica.getName())
+                .register(meterRegistry));
+        return replicaSet;
+    }
+
+    // The proxy fetches the physical connection at the first statement, once the transaction has begun,
+    // so the routing sees its read-only flag: replicas for read-only transactions, the primary for
+    // everything else (including work outside transactions). The proxy's own setReadOnlyDataSource is
+    // not used: it needs Connection.setReadOnly(true), which HibernateJpaDialect skips when connections
+    // are released after each transaction, as they are here.
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaSet replicaSet) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            }
+        };
+        routing.setTargetDataSources(Map.of(Boolean.TRUE, replicaSet, Boolean.FALSE, primaryDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Boot's default holds a session's connection until the session closes, which under open-in-view
+    // means a whole request on whatever the first transaction picked; route each transaction instead
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.fullrestapi.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaRoutingProperties {
+
+    // Read-only transactions are spread over these; none configured keeps the single datasource
+    private List<Replica> replicas = new ArrayList<>();
+
+    // After a read-write transaction, the rest of the request reads from the primary as well
+    private boolean readYourWrites = true;
+
+    // How often replicas are probed; a replica failing a probe or a connection is skipped until it passes again
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private int poolSize = 10;
+
+    @Data
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+    }
+}
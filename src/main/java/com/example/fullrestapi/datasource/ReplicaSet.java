@@ -0,0 +1,163 @@
+package com.example.fullrestapi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Where read-only transactions get their connections (see ReplicaRoutingConfig): round-robin over the healthy replica pools.
+// Health comes from a periodic isValid() probe and from failed connection attempts, whichever notices
+// first. While none is up, or once the request has begun a read-write transaction (readYourWrites),
+// connections come from the primary instead.
+@Slf4j
+public class ReplicaSet extends AbstractDataSource implements SmartLifecycle, TransactionExecutionListener {
+
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private static final String PINNED_ATTRIBUTE = ReplicaSet.class.getName() + ".PINNED";
+
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final boolean readYourWrites;
+    private final long healthCheckIntervalMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService prober;
+
+    ReplicaSet(List<Replica> replicas, DataSource primary, boolean readYourWrites, long healthCheckIntervalMillis) {
+        this.replicas = List.copyOf(replicas);
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (pinnedToPrimary()) {
+            return primary.getConnection();
+        }
+        Replica replica = next();
+        while (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException ex) {
+                markDown(replica, ex);
+                replica = next();
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are configured per pool; the proxy only passes them through if it was given some
+        return getConnection();
+    }
+
+    // Pins the rest of the request to the primary once it starts writing
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (readYourWrites && beginFailure == null && !transaction.isReadOnly() && request != null) {
+            request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private boolean pinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    // Next healthy replica in turn, or null when all are down
+    Replica next() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            log.warn("Replica {} marked down: {}", replica.name, cause.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    void probe() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(PROBE_TIMEOUT_SECONDS);
+            } catch (SQLException ex) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} is {}", replica.name, healthy ? "back up" : "down");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void start() {
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.scheduleWithFixedDelay(this::probe, 0, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        prober.shutdownNow();
+        prober = null;
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return prober != null;
+    }
+}
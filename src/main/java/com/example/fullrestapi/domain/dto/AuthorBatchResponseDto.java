@@ -0,0 +1,14 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorBatchResponseDto {
+    private int created;
+    private int failed;
+    private List<AuthorBatchResultDto> results;
+}
@@ -0,0 +1,14 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorBatchResultDto {
+    private int index;              // position in the request array
+    private String status;          // CREATED, CONFLICT or INVALID
+    private AuthorDto author;       // saved author when CREATED
+    private String error;
+}
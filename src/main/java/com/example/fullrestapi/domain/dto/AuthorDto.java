@@ -13,8 +13,10 @@ import java.util.List;
 public class AuthorDto {
     private Long id;
 
+    // Letters, digits, spaces and the punctuation common in names (O'Neil, Mary-Jane, J.R.R.)
     @NotBlank(message = "name must not be empty")
-    @Pattern(regexp = "^[a-zA-Z0-9 ]+$", message = "name must not contain special characters")
+    @Size(max = 100, message = "name cannot exceed 100 characters")
+    @Pattern(regexp = "^[a-zA-Z0-9 '.\\-]+$", message = "name must not contain special characters")
     private String name;
 
     @NotNull(message = "age is required")
@@ -22,13 +24,22 @@ public class AuthorDto {
     @Max(value = 125, message = "age must not exceed 125")
     private Integer age;
 
-    @NotNull(message = "active is required")
+    // Optional: POST has always accepted authors without it
     private Boolean active;
 
+    @DecimalMin(value = "0.0", message = "rating cannot be negative")
+    @DecimalMax(value = "5.0", message = "rating cannot exceed 5.0")
     private Double rating;
+
+    @PositiveOrZero(message = "totalBooks cannot be negative")
     private Integer totalBooks;
-    private List<String> genres;
+
+    private List<@NotBlank(message = "genres must not contain blank entries") String> genres;
     private List<Integer> scores;
+
+    @PositiveOrZero(message = "wealth cannot be negative")
     private BigDecimal wealth;
+
+    @PositiveOrZero(message = "followers cannot be negative")
     private BigInteger followers;
 }
@@ -0,0 +1,16 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorStatsDto {
+    private Long authorId;
+    private long bookCount;
+    private long ratingCount;
+    private Double averageRating;     // null while no book has a rating
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,13 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBulkErrorDto {
+    private long line;              // 1-based line in the NDJSON body
+    private String isbn;
+    private String error;
+}
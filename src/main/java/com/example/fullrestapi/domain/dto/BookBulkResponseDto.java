@@ -0,0 +1,18 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBulkResponseDto {
+    private long received;
+    private long upserted;
+    private long failed;
+
+    @Builder.Default
+    private List<BookBulkErrorDto> errors = new ArrayList<>();   // capped, see BookController
+}
@@ -1,5 +1,7 @@
 package com.example.fullrestapi.domain.dto;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
 import lombok.*;
 import java.math.BigDecimal;
 import java.util.List;
@@ -9,12 +11,27 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BookDto {
+    @Size(max = 32, message = "isbn cannot exceed 32 characters")
     private String isbn;
+
+    @NotBlank(message = "title must not be empty")
+    @Size(max = 255, message = "title cannot exceed 255 characters")
     private String title;
+
     private Boolean published;
+
+    @Positive(message = "pages must be positive")
     private Integer pages;
+
+    @DecimalMin(value = "0.0", message = "price cannot be negative")
     private BigDecimal price;
+
+    @Valid
     private AuthorDto author;       // Nested DTO
-    private List<String> tags;
-    private List<Double> ratings;
+
+    private List<@NotBlank(message = "tags must not contain blank entries") String> tags;
+
+    private List<@NotNull(message = "ratings must not contain nulls")
+                 @DecimalMin(value = "0.0", message = "ratings cannot be negative")
+                 @DecimalMax(value = "5.0", message = "ratings cannot exceed 5.0") Double> ratings;
 }
@@ -0,0 +1,23 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+// Query parameters of GET /books; every field is optional and the set ones are ANDed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFilterDto {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean published;
+    private Integer minPages;
+    private Integer maxPages;
+    private Long authorId;
+    private String tag;
+
+    public boolean hasCriteria() {
+        return minPrice != null || maxPrice != null || published != null
+                || minPages != null || maxPages != null || authorId != null || tag != null;
+    }
+}
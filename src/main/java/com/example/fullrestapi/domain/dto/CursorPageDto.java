@@ -0,0 +1,15 @@
+package com.example.fullrestapi.domain.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;      // pass back as ?after= to get the following page
+}
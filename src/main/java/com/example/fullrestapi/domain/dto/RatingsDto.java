@@ -0,0 +1,24 @@
+package com.example.fullrestapi.domain.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+// Body of POST /books/{isbn}/ratings: ratings appended to the book's existing ones
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingsDto {
+
+    @NotEmpty(message = "ratings must not be empty")
+    @Size(max = 100, message = "at most 100 ratings per request")
+    private List<@NotNull(message = "ratings must not contain nulls")
+                 @DecimalMin(value = "0.0", message = "ratings cannot be negative")
+                 @DecimalMax(value = "5.0", message = "ratings cannot exceed 5.0") Double> ratings;
+}
@@ -2,6 +2,11 @@ package com.example.fullrestapi.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
@@ -11,27 +16,40 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "authors")
+@DynamicUpdate                            // ✅ PATCH writes only the changed columns
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")   // ✅ see AuthorCacheConfig
+@Table(name = AuthorEntity.TABLE,
+        uniqueConstraints = @UniqueConstraint(name = "uk_authors_name", columnNames = "name"),
+        indexes = @Index(name = "idx_authors_name_id", columnList = "name, id"))
 public class AuthorEntity {
 
+    public static final String TABLE = "authors";   // also the key for cached/estimated page totals (TotalCounter)
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)  // ✅ simpler & works best with PostgreSQL
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50) // ✅ pooled ids keep JDBC batching on
     private Long id;
 
+    // ✅ bumped on every update (including genres/scores changes); backs the ETag of GET /authors/{id}
+    @Version
+    private Long version;
+
     private String name;
     private Integer age;
     private Boolean active;               // boolean field
     private Double rating;                // double rating
     private Integer totalBooks;           // total books
 
-    @ElementCollection
-    @CollectionTable(name = "author_genres", joinColumns = @JoinColumn(name = "author_id"))
-    @Column(name = "genre")
+    // ✅ array columns on this row under the array-storage profile; by default META-INF/orm.xml keeps
+    // genres and scores in the author_genres/author_scores side tables, cached in the regions below
+    // and batch-fetched through default_batch_fetch_size
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors.genres")
     private List<String> genres;          // list of strings
 
-    @ElementCollection
-    @CollectionTable(name = "author_scores", joinColumns = @JoinColumn(name = "author_id"))
-    @Column(name = "score")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors.scores")
     private List<Integer> scores;         // list of integers
 
     private BigDecimal wealth;            // big decimal for large numbers
@@ -0,0 +1,25 @@
+package com.example.fullrestapi.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+
+// Aggregates over the books linked to an author, kept by AuthorStatsAccumulator. No foreign key to
+// authors: rows are written in batches by the flusher, and AuthorServiceImpl.delete removes them.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "author_stats")
+public class AuthorStatsEntity {
+
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+
+    private long bookCount;
+    private long ratingCount;             // ratings over all books
+    private double ratingSum;
+    private BigDecimal priceTotal;        // list price of all books
+}
@@ -2,6 +2,9 @@ package com.example.fullrestapi.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -10,12 +13,24 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "books")
+// ✅ one index per GET /books filter (see BookSpecifications); price alone serves ranges without published
+@Table(name = BookEntity.TABLE, indexes = {
+        @Index(name = "idx_books_title_isbn", columnList = "title, isbn"),
+        @Index(name = "idx_books_author_id", columnList = "author_id, isbn"),
+        @Index(name = "idx_books_published_price", columnList = "published, price"),
+        @Index(name = "idx_books_price", columnList = "price"),
+        @Index(name = "idx_books_pages", columnList = "pages")})
 public class BookEntity {
 
+    public static final String TABLE = "books";     // also the key for cached/estimated page totals (TotalCounter)
+
     @Id
     private String isbn;  // ✅ natural key
 
+    // ✅ bumped on every update (including tags/ratings changes); backs the ETags of GET /books
+    @Version
+    private Long version;
+
     private String title;
     private Boolean published;            // boolean
     private Integer pages;                // integer
@@ -26,13 +41,24 @@ public class BookEntity {
     @JoinColumn(name = "author_id", nullable = false)
     private AuthorEntity author;
 
-    @ElementCollection
-    @CollectionTable(name = "book_tags", joinColumns = @JoinColumn(name = "book_isbn"))
-    @Column(name = "tag")
+    // ✅ array columns on this row under the array-storage profile; by default META-INF/orm.xml keeps
+    // tags and ratings in the book_tags/book_ratings side tables, batch-fetched through default_batch_fetch_size
+    @JdbcTypeCode(SqlTypes.ARRAY)
     private List<String> tags;            // list of strings
 
-    @ElementCollection
-    @CollectionTable(name = "book_ratings", joinColumns = @JoinColumn(name = "book_isbn"))
-    @Column(name = "rating")
+    @JdbcTypeCode(SqlTypes.ARRAY)
     private List<Double> ratings;         // list of doubles
+
+    // ✅ tags flattened into the row so the generated search_vector can index them (see BookSearchSchema)
+    @Column(name = "search_tags", columnDefinition = "text")   // unbounded: a book can carry any number of tags
+    private String searchTags;
+
+    // Tags that were never loaded were not changed either, so the flattened copy is still current
+    @PrePersist
+    @PreUpdate
+    void flattenTags() {
+        if (tags != null && Hibernate.isInitialized(tags)) {
+            searchTags = String.join(" ", tags);
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package com.example.fullrestapi.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +23,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
+    // Same field -> message shape as @Valid failures above
+    @ExceptionHandler(PayloadValidationException.class)
+    public ResponseEntity<Map<String, String>> handlePayloadValidation(PayloadValidationException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getErrors());
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(ResourceNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Load shedding: the client should come back after Retry-After seconds
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    // Writes go straight to the database; unique/primary/foreign key violations become 409s here
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleConstraintViolations(DataIntegrityViolationException ex) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", conflictMessage(constraint)));
+    }
+
+    private String conflictMessage(String constraint) {
+        if (constraint == null) {
+            return "Request conflicts with existing data";
+        }
+        String name = constraint.toLowerCase();
+        if (name.equals("uk_authors_name")) {
+            return "Author with this name already exists";
+        }
+        if (name.equals("books_pkey")) {
+            return "Book with this ISBN already exists";
+        }
+        if (name.startsWith("fk")) {
+            return "Resource is still referenced by other records";
+        }
+        return "Request conflicts with existing data";
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeExceptions(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,18 @@
+package com.example.fullrestapi.exception;
+
+import java.util.Map;
+
+// Raised by ValidationEngine with one message per invalid field; rendered as a 400 field map
+public class PayloadValidationException extends RuntimeException {
+
+    private final Map<String, String> errors;
+
+    public PayloadValidationException(Map<String, String> errors) {
+        super("Invalid payload: " + errors);
+        this.errors = Map.copyOf(errors);
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
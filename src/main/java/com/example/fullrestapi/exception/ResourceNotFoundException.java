@@ -0,0 +1,9 @@
+package com.example.fullrestapi.exception;
+
+// Thrown when a write addressed a row that does not exist (zero rows affected); rendered as 404
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.fullrestapi.exception;
+
+import java.time.Duration;
+
+// The request was turned away to protect the service; GlobalExceptionHandler answers 503 with Retry-After
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
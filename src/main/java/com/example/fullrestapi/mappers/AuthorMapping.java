@@ -0,0 +1,19 @@
+package com.example.fullrestapi.mappers;
+
+import com.example.fullrestapi.domain.dto.AuthorDto;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+// Implemented at build time by the MapStruct processor as plain getter/setter code (AuthorMappingImpl)
+@org.mapstruct.Mapper(componentModel = "spring",
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface AuthorMapping {
+    AuthorDto toDto(AuthorEntity authorEntity);
+
+    // The version is owned by Hibernate and travels in the ETag header, never in the payload
+    @Mapping(target = "version", ignore = true)
+    AuthorEntity toEntity(AuthorDto authorDto);
+}
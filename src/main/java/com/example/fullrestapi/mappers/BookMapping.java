@@ -0,0 +1,20 @@
+package com.example.fullrestapi.mappers;
+
+import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+// Implemented at build time by the MapStruct processor as plain getter/setter code (BookMappingImpl)
+@org.mapstruct.Mapper(componentModel = "spring",
+        uses = AuthorMapping.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface BookMapping {
+    BookDto toDto(BookEntity bookEntity);
+
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "searchTags", ignore = true)
+    BookEntity toEntity(BookDto bookDto);
+}
@@ -2,8 +2,8 @@ package com.example.fullrestapi.mappers.Impl;
 
 import com.example.fullrestapi.domain.dto.AuthorDto;
 import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.mappers.AuthorMapping;
 import com.example.fullrestapi.mappers.Mapper;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -11,20 +11,20 @@ import java.util.ArrayList;
 @Component
 public class AuthorMapperImpl implements Mapper<AuthorEntity, AuthorDto> {
 
-    private final ModelMapper modelMapper;
+    private final AuthorMapping authorMapping;
 
-    public AuthorMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
+    public AuthorMapperImpl(AuthorMapping authorMapping) {
+        this.authorMapping = authorMapping;
     }
 
     @Override
     public AuthorDto mapTo(AuthorEntity authorEntity) {
-        return modelMapper.map(authorEntity, AuthorDto.class);
+        return authorMapping.toDto(authorEntity);
     }
 
     @Override
     public AuthorEntity mapFrom(AuthorDto authorDto) {
-        return modelMapper.map(authorDto, AuthorEntity.class);
+        return authorMapping.toEntity(authorDto);
     }
 
     // Partial mapping: only non-null fields
@@ -2,8 +2,8 @@ package com.example.fullrestapi.mappers.Impl;
 
 import com.example.fullrestapi.domain.dto.BookDto;
 import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.mappers.BookMapping;
 import com.example.fullrestapi.mappers.Mapper;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -11,22 +11,22 @@ import java.util.ArrayList;
 @Component
 public class BookMapperImpl implements Mapper<BookEntity, BookDto> {
 
-    private final ModelMapper modelMapper;
+    private final BookMapping bookMapping;
     private final AuthorMapperImpl authorMapper;
 
-    public BookMapperImpl(ModelMapper modelMapper, AuthorMapperImpl authorMapper) {
-        this.modelMapper = modelMapper;
+    public BookMapperImpl(BookMapping bookMapping, AuthorMapperImpl authorMapper) {
+        this.bookMapping = bookMapping;
         this.authorMapper = authorMapper;
     }
 
     @Override
     public BookDto mapTo(BookEntity bookEntity) {
-        return modelMapper.map(bookEntity, BookDto.class);
+        return bookMapping.toDto(bookEntity);
     }
 
     @Override
     public BookEntity mapFrom(BookDto bookDto) {
-        return modelMapper.map(bookDto, BookEntity.class);
+        return bookMapping.toEntity(bookDto);
     }
 
     // Partial mapping: only non-null fields
@@ -0,0 +1,53 @@
+package com.example.fullrestapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// app.mapper timer per mapper method, plus the map phase of the current request. Service methods are
+// timed by @Timed instead; this one also has to feed RequestTimings.
+@Aspect
+@Component
+public class MapperTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public MapperTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.example.fullrestapi.mappers.Mapper+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        boolean outermost = timings != null && timings.enterMapper();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (timings != null) {
+                timings.exitMapper(outermost, elapsed);
+            }
+            timer(joinPoint).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers.computeIfAbsent(method, key -> Timer.builder("app.mapper")
+                .tag("mapper", joinPoint.getTarget().getClass().getSimpleName())
+                .tag("method", key.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
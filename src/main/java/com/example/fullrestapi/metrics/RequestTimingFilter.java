@@ -0,0 +1,88 @@
+package com.example.fullrestapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Opens RequestTimings for each request and reports them per endpoint: app.request.phase{phase=db|pool|
+// map|serialize} and app.request.sql.statements. Responses with a body get Server-Timing from
+// ServerTimingAdvice; everything else (204, 304) gets it here if still possible. Clients that send
+// "TE: trailers" also get the complete breakdown, serialize included, as a trailer.
+// Ordered after GzipCompressionFilter so the header is set before the gzip decision commits.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        if (acceptsTrailers(request)) {
+            response.setHeader(HttpHeaders.TRAILER, RequestTimings.HEADER);
+            // Called by the container after the last body byte, when every phase has been measured
+            response.setTrailerFields(() -> Map.of(RequestTimings.HEADER, timings.serverTiming()));
+        }
+        try {
+            chain.doFilter(request, response);
+            timings.endSerialize();
+            if (!response.isCommitted() && !response.containsHeader(RequestTimings.HEADER)) {
+                response.setHeader(RequestTimings.HEADER, timings.serverTiming());
+            }
+        } finally {
+            RequestTimings.end();
+            record(request, timings);
+        }
+    }
+
+    private static boolean acceptsTrailers(HttpServletRequest request) {
+        String te = request.getHeader("TE");
+        return te != null && te.toLowerCase(Locale.ROOT).contains("trailers")
+                && !"HTTP/1.0".equals(request.getProtocol());   // no chunked encoding, so no trailers
+    }
+
+    private void record(HttpServletRequest request, RequestTimings timings) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("app.request.sql.statements")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timings.statements());
+        recordPhase(tags, "db", timings.dbNanos());
+        recordPhase(tags, "pool", timings.poolNanos());
+        recordPhase(tags, "map", timings.mapNanos());
+        recordPhase(tags, "serialize", timings.serializeNanos());
+    }
+
+    private void recordPhase(Tags tags, String phase, long nanos) {
+        Timer.builder("app.request.phase")
+                .tags(tags)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
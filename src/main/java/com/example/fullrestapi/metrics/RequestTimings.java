@@ -0,0 +1,108 @@
+package com.example.fullrestapi.metrics;
+
+// Where the current request's time went. Filled in on the request thread by SqlTimingSessionListener
+// (db, pool) and MapperTimingAspect (map); serialize runs from ServerTimingAdvice to the end of
+// RequestTimingFilter, which opens and reports the timings.
+public final class RequestTimings {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long dbNanos;
+    private long poolNanos;
+    private long mapNanos;
+    private long serializeNanos;
+    private long serializeStartNanos;     // 0: no body was written through a converter
+    private int statements;
+    private int mapperDepth;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // null outside an HTTP request (startup, scheduled work)
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    void addPrepare(long nanos) {
+        dbNanos += nanos;
+    }
+
+    void addStatement(long nanos) {
+        statements++;
+        dbNanos += nanos;
+    }
+
+    void addPoolWait(long nanos) {
+        poolNanos += nanos;
+    }
+
+    void startSerialize() {
+        serializeStartNanos = System.nanoTime();
+    }
+
+    void endSerialize() {
+        if (serializeStartNanos != 0) {
+            serializeNanos += System.nanoTime() - serializeStartNanos;
+            serializeStartNanos = 0;
+        }
+    }
+
+    // Mappers call each other (book -> author), so only the outermost call is added to the phase
+    boolean enterMapper() {
+        return mapperDepth++ == 0;
+    }
+
+    void exitMapper(boolean outermost, long nanos) {
+        mapperDepth--;
+        if (outermost) {
+            mapNanos += nanos;
+        }
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long dbNanos() {
+        return dbNanos;
+    }
+
+    long poolNanos() {
+        return poolNanos;
+    }
+
+    long mapNanos() {
+        return mapNanos;
+    }
+
+    long serializeNanos() {
+        return serializeNanos;
+    }
+
+    // e.g. db;dur=3.41;desc="2 statements", pool;dur=0.02, map;dur=0.35, total;dur=5.2 - serialize is only
+    // known once the body is written, so it is included only after that (the trailer, the meters)
+    String serverTiming() {
+        return "db;dur=" + millis(dbNanos) + ";desc=\"" + statements + " statements\""
+                + ", pool;dur=" + millis(poolNanos)
+                + ", map;dur=" + millis(mapNanos)
+                + (serializeNanos > 0 ? ", serialize;dur=" + millis(serializeNanos) : "")
+                + ", total;dur=" + millis(System.nanoTime() - startNanos);
+    }
+
+    private static double millis(long nanos) {
+        return (nanos / 10_000) / 100.0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.fullrestapi.metrics;
+
+import org.hibernate.SessionEventListener;
+
+// Registered with hibernate.session.events.auto, so Hibernate creates one per session and calls it on
+// the thread using that session. Statement time covers prepare and execute (including batches), not
+// reading the result set; pool time is the wait for a Hikari connection.
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long acquisitionStart;
+    private long prepareStart;
+    private long executeStart;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.addPoolWait(System.nanoTime() - acquisitionStart);
+        }
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.addPrepare(System.nanoTime() - prepareStart);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnd();
+    }
+
+    private void statementEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.addStatement(System.nanoTime() - executeStart);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.fullrestapi.pagination;
+
+import java.util.Locale;
+
+// How the totalElements of a list page was obtained; reported to clients in X-Total-Count-Strategy
+public enum CountStrategy {
+    EXACT,          // count(*) in the same request
+    CACHED,         // a count(*) from at most app.pagination.total-count.cache-ttl ago, dropped on inserts and deletes
+    ESTIMATED;      // the planner's row estimate (pg_class.reltuples), refreshed by (auto)ANALYZE
+
+    public static final String HEADER = "X-Total-Count-Strategy";
+
+    public String headerValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
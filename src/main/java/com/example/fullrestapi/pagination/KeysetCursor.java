@@ -0,0 +1,73 @@
+package com.example.fullrestapi.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position for keyset (seek) pagination: the sort property plus the sort key and
+ * unique id of the last row a client has seen. Encoded as URL-safe Base64 so clients treat it
+ * as a token rather than something to build by hand.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private final String sort;
+    private final String key;
+    private final String id;
+
+    private KeysetCursor(String sort, String key, String id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    // Position before the first row for the given sort
+    public static KeysetCursor first(String sort) {
+        return new KeysetCursor(sort, null, null);
+    }
+
+    public static KeysetCursor after(String sort, String key, String id) {
+        return new KeysetCursor(sort, key == null ? "" : key, id);
+    }
+
+    // Empty token means "start from the beginning" with the requested sort
+    public static KeysetCursor decode(String token, String defaultSort) {
+        if (token == null || token.isEmpty()) {
+            return first(defaultSort);
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new KeysetCursor(raw.substring(0, first), raw.substring(first + 1, last), raw.substring(last + 1));
+    }
+
+    public String encode() {
+        String raw = sort + SEPARATOR + (key == null ? "" : key) + SEPARATOR + (id == null ? "" : id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
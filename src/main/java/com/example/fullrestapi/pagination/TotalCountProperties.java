@@ -0,0 +1,22 @@
+package com.example.fullrestapi.pagination;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.pagination.total-count")
+public class TotalCountProperties {
+
+    // Per table (books, authors); tables not listed are counted exactly
+    private Map<String, CountStrategy> strategy = new HashMap<>();
+
+    // Upper bound on the age of a CACHED total when no insert or delete invalidated it first
+    private Duration cacheTtl = Duration.ofSeconds(30);
+
+    // ESTIMATED falls back to count(*) below this many rows, where counting is cheap and estimates are coarse
+    private long exactBelow = 10_000;
+}
@@ -0,0 +1,91 @@
+package com.example.fullrestapi.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Supplies the total for list pages whose content was read without a count query, using the
+ * strategy configured for the table. Whatever the strategy, a first page that is not full and
+ * any partial last page know their total exactly and run no count at all.
+ */
+@Component
+@EnableConfigurationProperties(TotalCountProperties.class)
+public class TotalCounter {
+
+    private final TotalCountProperties properties;
+    private final EntityManager entityManager;
+    private final boolean postgres;
+    private final Cache<String, Long> cachedTotals;
+
+    public TotalCounter(TotalCountProperties properties, EntityManager entityManager,
+                        EntityManagerFactory entityManagerFactory) {
+        this.properties = properties;
+        this.entityManager = entityManager;
+        // pg_class estimates are PostgreSQL-only; elsewhere ESTIMATED counts exactly
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        this.cachedTotals = Caffeine.newBuilder().expireAfterWrite(properties.getCacheTtl()).build();
+    }
+
+    public <T> CountedPage<T> page(String table, List<T> content, Pageable pageable, LongSupplier exactCount) {
+        if (pageable.isUnpaged()) {
+            return new CountedPage<>(content, pageable, content.size(), CountStrategy.EXACT);
+        }
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            return new CountedPage<>(content, pageable, pageable.getOffset() + content.size(), CountStrategy.EXACT);
+        }
+        if (pageable.getOffset() == 0 && content.isEmpty()) {
+            return new CountedPage<>(content, pageable, 0, CountStrategy.EXACT);
+        }
+
+        // Never report fewer rows than this page shows to exist
+        long seen = pageable.getOffset() + content.size();
+        return switch (properties.getStrategy().getOrDefault(table, CountStrategy.EXACT)) {
+            case EXACT -> new CountedPage<>(content, pageable, exactCount.getAsLong(), CountStrategy.EXACT);
+            case CACHED -> new CountedPage<>(content, pageable,
+                    Math.max(seen, cachedTotals.get(table, key -> exactCount.getAsLong())), CountStrategy.CACHED);
+            case ESTIMATED -> {
+                long estimate = postgres ? estimate(table) : -1;
+                yield estimate < properties.getExactBelow()
+                        ? new CountedPage<>(content, pageable, exactCount.getAsLong(), CountStrategy.EXACT)
+                        : new CountedPage<>(content, pageable, Math.max(seen, estimate), CountStrategy.ESTIMATED);
+            }
+        };
+    }
+
+    // Called for inserts and deletes. A cached total is dropped once the transaction commits:
+    // dropped earlier, a concurrent request could cache the pre-commit count again
+    public void invalidate(String table) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cachedTotals.invalidate(table);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cachedTotals.invalidate(table);
+            }
+        });
+    }
+
+    // -1 (never analyzed) or an unknown table also fall back to count(*)
+    private long estimate(String table) {
+        List<?> rows = entityManager.createNativeQuery(
+                        "select cast(reltuples as bigint) from pg_class where oid = to_regclass(:table)")
+                .setParameter("table", table)
+                .getResultList();
+        return rows.isEmpty() || rows.get(0) == null ? -1 : ((Number) rows.get(0)).longValue();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.fullrestapi.ratings;
+
+import com.example.fullrestapi.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind buffer for POST /books/{isbn}/ratings. Requests only enqueue; a single flusher
+ * thread takes up to batchSize of them (or whatever arrived within flushInterval), merges the
+ * ratings per ISBN and hands them to {@link RatingBatchWriter} as one transaction. The queue is
+ * bounded, so a database that falls behind shows up as 503s rather than as unbounded memory.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RatingsProperties.class)
+public class RatingAppendQueue implements SmartLifecycle {
+
+    private static final long STOP_POLL_MILLIS = 100;
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private record PendingRatings(String isbn, List<Double> ratings, CompletableFuture<Boolean> written) {
+    }
+
+    private final RatingsProperties properties;
+    private final RatingBatchWriter writer;
+    private final BlockingQueue<PendingRatings> queue;
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter rejected;
+    private volatile boolean running;
+    private Thread flusher;
+
+    public RatingAppendQueue(RatingsProperties properties, RatingBatchWriter writer, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.flushed = meterRegistry.counter("app.ratings.flushed");
+        this.dropped = meterRegistry.counter("app.ratings.dropped");
+        this.rejected = meterRegistry.counter("app.ratings.rejected");
+        Gauge.builder("app.ratings.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    // Completes with whether the book existed once the ratings are committed; throws when the queue stays full
+    public CompletableFuture<Boolean> append(String isbn, List<Double> ratings) {
+        PendingRatings pending = new PendingRatings(isbn, List.copyOf(ratings), new CompletableFuture<>());
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = queue.offer(pending, properties.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many ratings waiting to be written", RETRY_AFTER);
+        }
+        return pending.written();
+    }
+
+    public boolean waitsForCommit() {
+        return properties.getDurability() == RatingsProperties.Durability.COMMITTED;
+    }
+
+    // true/false: committed, book found or not; null: still pending after commitTimeout
+    public Boolean awaitCommit(CompletableFuture<Boolean> written) {
+        try {
+            return written.get(properties.getCommitTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            throw new ServiceOverloadedException("Ratings could not be written", RETRY_AFTER);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::run, "ratings-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // New appends are refused from here on; everything already queued is still written
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    // Started before and stopped after the web server, so no accepted request misses the final flush
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        List<PendingRatings> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRatings first = queue.poll(STOP_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // Only stop() ends the loop, by clearing running; a stray interrupt is ignored
+            } catch (Throwable ex) {
+                // Anything flush() did not handle (an Error from the writer) fails this batch only; the
+                // thread keeps going, since nothing else would ever drain the queue again
+                int ratings = batch.stream().mapToInt(pending -> pending.ratings().size()).sum();
+                log.error("Ratings flusher failed, dropping {} ratings", ratings, ex);
+                dropped.increment(ratings);
+                batch.forEach(pending -> pending.written().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Size trigger: a full batch goes out at once. Time trigger: a partial one after flushInterval.
+    private void fill(List<PendingRatings> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long wait = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || wait <= 0 || !running) {
+                return;
+            }
+            PendingRatings next = queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingRatings> batch) {
+        SortedMap<String, List<Double>> ratingsByIsbn = new TreeMap<>();
+        int ratings = 0;
+        for (PendingRatings pending : batch) {
+            ratingsByIsbn.computeIfAbsent(pending.isbn(), isbn -> new ArrayList<>()).addAll(pending.ratings());
+            ratings += pending.ratings().size();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Set<String> written = writer.write(ratingsByIsbn);
+                flushed.increment(ratings);
+                batch.forEach(pending -> pending.written().complete(written.contains(pending.isbn())));
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.error("Dropping {} ratings for {} books after {} failed writes", ratings,
+                            ratingsByIsbn.size(), attempt, ex);
+                    dropped.increment(ratings);
+                    batch.forEach(pending -> pending.written().completeExceptionally(ex));
+                    return;
+                }
+                log.warn("Writing {} ratings failed (attempt {}), retrying: {}", ratings, attempt, ex.getMessage());
+                pause(attempt * properties.getFlushInterval().toMillis());
+            }
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ignored) {
+            // retry sooner
+        }
+    }
+}
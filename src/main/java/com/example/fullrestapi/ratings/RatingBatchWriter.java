@@ -0,0 +1,108 @@
+package com.example.fullrestapi.ratings;
+
+import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.stats.AuthorStatsAccumulator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Appends a coalesced batch of ratings without loading any book: the rows go in as JDBC batches
+ * (array-storage profile: one array append per book) and each book's version is bumped, so ETags
+ * and optimistic locking see the change as they would a PATCH.
+ */
+@Component
+public class RatingBatchWriter {
+
+    private static final String INSERT_RATING = "insert into book_ratings (book_isbn, rating) values (?, ?)";
+    private static final String BUMP_VERSION = "update books set version = version + 1 where isbn = ?";
+    private static final String APPEND_RATINGS = "update books set ratings = coalesce(ratings, cast('{}' as float8[])) || ?, "
+            + "version = version + 1 where isbn = ?";
+
+    private final EntityManager entityManager;
+    private final AuthorStatsAccumulator authorStats;
+    private final boolean arrayStorage;
+
+    public RatingBatchWriter(EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+                             AuthorStatsAccumulator authorStats) {
+        this.entityManager = entityManager;
+        this.authorStats = authorStats;
+        this.arrayStorage = !(entityManagerFactory.getMetamodel().entity(BookEntity.class)
+                .getAttribute("ratings") instanceof PluralAttribute);
+    }
+
+    // Returns the ISBNs that were written; ratings for unknown (or meanwhile deleted) books are skipped
+    @Transactional
+    public Set<String> write(SortedMap<String, List<Double>> ratingsByIsbn) {
+        // Locked in ISBN order, like every batch, so concurrent flushes and deletes cannot deadlock or race
+        Map<String, Long> authorIds = new HashMap<>();
+        entityManager.createQuery("select b.isbn, b.author.id from BookEntity b where b.isbn in :isbns "
+                        + "order by b.isbn", Object[].class)
+                .setParameter("isbns", ratingsByIsbn.keySet())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList()
+                .forEach(row -> authorIds.put((String) row[0], (Long) row[1]));
+        if (authorIds.isEmpty()) {
+            return Set.of();
+        }
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (arrayStorage) {
+                appendToArrays(connection, ratingsByIsbn, authorIds.keySet());
+            } else {
+                insertRows(connection, ratingsByIsbn, authorIds.keySet());
+            }
+        });
+        authorIds.forEach((isbn, authorId) -> authorStats.ratingsAdded(authorId, ratingsByIsbn.get(isbn)));
+        return authorIds.keySet();
+    }
+
+    private static void insertRows(Connection connection, SortedMap<String, List<Double>> ratingsByIsbn,
+                                   Set<String> existing) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_RATING);
+             PreparedStatement bump = connection.prepareStatement(BUMP_VERSION)) {
+            for (Map.Entry<String, List<Double>> entry : ratingsByIsbn.entrySet()) {
+                if (!existing.contains(entry.getKey())) {
+                    continue;
+                }
+                for (Double rating : entry.getValue()) {
+                    insert.setString(1, entry.getKey());
+                    insert.setDouble(2, rating);
+                    insert.addBatch();
+                }
+                bump.setString(1, entry.getKey());
+                bump.addBatch();
+            }
+            insert.executeBatch();
+            bump.executeBatch();
+        }
+    }
+
+    private static void appendToArrays(Connection connection, SortedMap<String, List<Double>> ratingsByIsbn,
+                                       Set<String> existing) throws SQLException {
+        try (PreparedStatement append = connection.prepareStatement(APPEND_RATINGS)) {
+            for (Map.Entry<String, List<Double>> entry : ratingsByIsbn.entrySet()) {
+                if (!existing.contains(entry.getKey())) {
+                    continue;
+                }
+                append.setArray(1, connection.createArrayOf("float8", entry.getValue().toArray(Double[]::new)));
+                append.setString(2, entry.getKey());
+                append.addBatch();
+            }
+            append.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.fullrestapi.ratings;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.ratings")
+public class RatingsProperties {
+
+    public enum Durability {
+        QUEUED,         // 202 as soon as the ratings are queued; lost if the process dies before the flush
+        COMMITTED       // 204 once the batch holding them has committed (404 for an unknown ISBN)
+    }
+
+    private Durability durability = Durability.QUEUED;
+
+    // Requests waiting to be written; when full, appends wait up to enqueueTimeout and then get a 503
+    private int queueCapacity = 10_000;
+
+    private Duration enqueueTimeout = Duration.ofMillis(50);
+
+    // A flush starts when this many requests are queued, or flushInterval after the oldest one arrived
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    // A failing batch is retried this often before its ratings are dropped
+    private int maxAttempts = 3;
+
+    // COMMITTED only: how long a request waits for its batch before answering 202 instead
+    private Duration commitTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,43 @@
+package com.example.fullrestapi.search;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.relational.SimpleAuxiliaryDatabaseObject;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+
+import java.util.Set;
+
+/**
+ * Adds books.search_vector, a stored tsvector generated from the title (weight A) and the flattened
+ * tags in search_tags (weight B), plus its GIN index. Registered through META-INF/services so schema
+ * generation creates both right after the tables; other dialects (the H2 test databases) skip it.
+ * An existing database gets the same DDL from db/book-search.sql.
+ */
+public class BookSearchSchema implements AdditionalMappingContributor {
+
+    private static final String[] CREATE = {
+            "alter table books add column search_vector tsvector generated always as ("
+                    + "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || "
+                    + "setweight(to_tsvector('simple', coalesce(search_tags, '')), 'B')) stored",
+            "create index idx_books_search on books using gin (search_vector)"
+    };
+
+    private static final String[] DROP = {
+            "drop index if exists idx_books_search"
+    };
+
+    @Override
+    public String getContributorName() {
+        return "book-search";
+    }
+
+    @Override
+    public void contribute(AdditionalMappingContributions contributions, InFlightMetadataCollector metadata,
+                           ResourceStreamLocator resourceStreamLocator, MetadataBuildingContext buildingContext) {
+        contributions.contributeAuxiliaryDatabaseObject(new SimpleAuxiliaryDatabaseObject(
+                Set.of(PostgreSQLDialect.class.getName()), null, null, CREATE, DROP));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.fullrestapi.search;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Turns free text into a to_tsquery() argument: letters/digits only (so no tsquery syntax can be
+// injected), every term prefix-matched and all terms required, e.g. "Java prog" -> "java:* & prog:*"
+public final class SearchTerms {
+
+    private static final int MAX_TERMS = 8;
+
+    private SearchTerms() {
+    }
+
+    public static String toPrefixQuery(String text) {
+        String query = Arrays.stream(text == null ? new String[0] : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .limit(MAX_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one letter or digit");
+        }
+        return query;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.fullrestapi.stats;
+
+import com.example.fullrestapi.Repository.AuthorStatsRepository;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps author_stats in step with book writes without making the author row a lock hotspot.
+ * BookServiceImpl reports each book's contribution (count, ratings, price) as it is added, removed
+ * or changed; once the transaction commits, the delta goes into striped in-memory adders, and the
+ * flusher folds everything collected since the last run into one additive upsert per author.
+ */
+@Slf4j
+@Component
+public class AuthorStatsAccumulator {
+
+    private static final int IDLE_FLUSHES_BEFORE_EVICTION = 60;
+
+    record Contribution(long books, long ratings, double ratingSum, long priceCents) {
+
+        boolean isZero() {
+            return books == 0 && ratings == 0 && ratingSum == 0 && priceCents == 0;
+        }
+
+        Contribution plus(Contribution other) {
+            return new Contribution(books + other.books, ratings + other.ratings,
+                    ratingSum + other.ratingSum, priceCents + other.priceCents);
+        }
+    }
+
+    // Writers only add to the adders, which spread concurrent updates over cells: no lock and no single
+    // contended counter for a hot author. sumThenReset() takes each cell atomically, so nothing is lost.
+    private static final class Delta {
+        final LongAdder books = new LongAdder();
+        final LongAdder ratings = new LongAdder();
+        final DoubleAdder ratingSum = new DoubleAdder();
+        final LongAdder priceCents = new LongAdder();
+        volatile boolean retired;
+        int idleFlushes;                  // flusher only
+
+        void add(Contribution contribution) {
+            books.add(contribution.books());
+            ratings.add(contribution.ratings());
+            ratingSum.add(contribution.ratingSum());
+            priceCents.add(contribution.priceCents());
+        }
+
+        Contribution drain() {
+            return new Contribution(books.sumThenReset(), ratings.sumThenReset(),
+                    ratingSum.sumThenReset(), priceCents.sumThenReset());
+        }
+    }
+
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    private final AuthorStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean postgres;
+
+    public AuthorStatsAccumulator(AuthorStatsRepository statsRepository, PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // The book as it is now counts towards its author
+    public void add(BookEntity book) {
+        record(book, 1);
+    }
+
+    // The book as it is now no longer counts (call before changing or deleting it)
+    public void remove(BookEntity book) {
+        record(book, -1);
+    }
+
+    // Ratings appended without loading the book (RatingBatchWriter)
+    public void ratingsAdded(Long authorId, List<Double> ratings) {
+        double sum = ratings.stream().mapToDouble(Double::doubleValue).sum();
+        Contribution contribution = new Contribution(0, ratings.size(), sum, 0);
+        afterCommit(() -> apply(authorId, contribution));
+    }
+
+    public void priceChanged(Long authorId, BigDecimal from, BigDecimal to) {
+        Contribution contribution = new Contribution(0, 0, 0, cents(to) - cents(from));
+        afterCommit(() -> apply(authorId, contribution));
+    }
+
+    // A book deleted by a single statement, from the aggregates it returned (BookServiceImpl.delete)
+    public void bookDeleted(Long authorId, BigDecimal price, long ratings, double ratingSum) {
+        Contribution contribution = new Contribution(-1, -ratings, -ratingSum, -cents(price));
+        afterCommit(() -> apply(authorId, contribution));
+    }
+
+    // The author's row is gone with the author; deltas still pending for it have nothing left to update
+    public void authorDeleted(Long authorId) {
+        afterCommit(() -> {
+            Delta delta = pending.remove(authorId);
+            if (delta != null) {
+                delta.retired = true;
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.author-stats.flush-interval:1s}")
+    public synchronized void flush() {
+        // Ascending author ids: concurrent flushes (other instances) lock rows in the same order
+        SortedMap<Long, Contribution> batch = new TreeMap<>();
+        pending.forEach((authorId, delta) -> {
+            Contribution contribution = delta.drain();
+            if (!contribution.isZero()) {
+                delta.idleFlushes = 0;
+            } else if (++delta.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICTION) {
+                delta.retired = true;
+                pending.remove(authorId, delta);
+                contribution = delta.drain();
+            }
+            if (!contribution.isZero()) {
+                batch.put(authorId, contribution);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::write));
+        } catch (RuntimeException ex) {
+            log.warn("Flushing author stats for {} authors failed, retrying with the next flush: {}",
+                    batch.size(), ex.getMessage());
+            batch.forEach(this::apply);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void record(BookEntity book, int sign) {
+        AuthorEntity author = book.getAuthor();
+        if (author == null) {
+            return;
+        }
+        long ratings = 0;
+        double ratingSum = 0;
+        if (book.getRatings() != null) {
+            for (Double rating : book.getRatings()) {
+                if (rating != null) {
+                    ratings++;
+                    ratingSum += rating;
+                }
+            }
+        }
+        Contribution contribution = new Contribution(sign, sign * ratings, sign * ratingSum,
+                sign * cents(book.getPrice()));
+        // A new author only gets its id when the transaction flushes, so it is read after commit
+        afterCommit(() -> apply(author.getId(), contribution));
+    }
+
+    private void apply(Long authorId, Contribution contribution) {
+        if (authorId == null || contribution.isZero()) {
+            return;
+        }
+        while (true) {
+            Delta delta = pending.computeIfAbsent(authorId, id -> new Delta());
+            delta.add(contribution);
+            if (!delta.retired) {
+                return;
+            }
+            // Evicted meanwhile: whatever the flusher's last drain did not see moves to a fresh entry
+            contribution = delta.drain();
+            if (contribution.isZero()) {
+                return;
+            }
+        }
+    }
+
+    // One upsert per author; it never creates a row for an author that no longer exists
+    private void write(Long authorId, Contribution contribution) {
+        BigDecimal price = BigDecimal.valueOf(contribution.priceCents(), 2);
+        if (postgres) {
+            statsRepository.addDelta(authorId, contribution.books(), contribution.ratings(), contribution.ratingSum(), price);
+        } else {
+            statsRepository.mergeDelta(authorId, contribution.books(), contribution.ratings(), contribution.ratingSum(), price);
+        }
+    }
+
+    private static long cents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    // Rolled-back writes must not count, so deltas are only applied once the transaction has committed
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
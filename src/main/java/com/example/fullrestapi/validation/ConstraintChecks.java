@@ -0,0 +1,183 @@
+package com.example.fullrestapi.validation;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Negative;
+import jakarta.validation.constraints.NegativeOrZero;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Null;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.metadata.ConstraintDescriptor;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Turns one Bean Validation constraint into a plain predicate at plan build time:
+// regexes are compiled and bounds parsed once, nothing is looked up per request.
+final class ConstraintChecks {
+
+    private ConstraintChecks() {
+    }
+
+    // As in the spec, null is valid for every constraint except the null-rejecting ones
+    record Check(Predicate<Object> test, boolean rejectsNull, String message) {
+
+        boolean passes(Object value) {
+            return value == null ? !rejectsNull : test.test(value);
+        }
+    }
+
+    static Check compile(ConstraintDescriptor<?> descriptor, Class<?> valueType, String message) {
+        if (!descriptor.getComposingConstraints().isEmpty()) {
+            throw unsupported(descriptor.getAnnotation(), valueType);
+        }
+        Annotation annotation = descriptor.getAnnotation();
+
+        if (annotation instanceof NotNull) {
+            return new Check(value -> true, true, message);
+        }
+        if (annotation instanceof Null) {
+            return new Check(value -> false, false, message);
+        }
+        if (annotation instanceof NotBlank) {
+            requireType(annotation, valueType, CharSequence.class);
+            return new Check(value -> !value.toString().isBlank(), true, message);
+        }
+        if (annotation instanceof NotEmpty) {
+            requireSized(annotation, valueType);
+            return new Check(value -> sizeOf(value) > 0, true, message);
+        }
+        if (annotation instanceof Size size) {
+            requireSized(annotation, valueType);
+            int min = size.min();
+            int max = size.max();
+            return new Check(value -> {
+                int length = sizeOf(value);
+                return length >= min && length <= max;
+            }, false, message);
+        }
+        if (annotation instanceof Pattern pattern) {
+            requireType(annotation, valueType, CharSequence.class);
+            java.util.regex.Pattern compiled = java.util.regex.Pattern.compile(pattern.regexp(), flags(pattern));
+            return new Check(value -> compiled.matcher((CharSequence) value).matches(), false, message);
+        }
+        if (annotation instanceof Min min) {
+            Bound bound = numericBound(annotation, valueType, BigDecimal.valueOf(min.value()));
+            return new Check(value -> bound.compare(value) >= 0, false, message);
+        }
+        if (annotation instanceof Max max) {
+            Bound bound = numericBound(annotation, valueType, BigDecimal.valueOf(max.value()));
+            return new Check(value -> bound.compare(value) <= 0, false, message);
+        }
+        if (annotation instanceof DecimalMin min) {
+            Bound bound = numericBound(annotation, valueType, new BigDecimal(min.value()));
+            boolean inclusive = min.inclusive();
+            return new Check(value -> {
+                int cmp = bound.compare(value);
+                return inclusive ? cmp >= 0 : cmp > 0;
+            }, false, message);
+        }
+        if (annotation instanceof DecimalMax max) {
+            Bound bound = numericBound(annotation, valueType, new BigDecimal(max.value()));
+            boolean inclusive = max.inclusive();
+            return new Check(value -> {
+                int cmp = bound.compare(value);
+                return inclusive ? cmp <= 0 : cmp < 0;
+            }, false, message);
+        }
+        if (annotation instanceof Positive) {
+            Bound zero = numericBound(annotation, valueType, BigDecimal.ZERO);
+            return new Check(value -> zero.compare(value) > 0, false, message);
+        }
+        if (annotation instanceof PositiveOrZero) {
+            Bound zero = numericBound(annotation, valueType, BigDecimal.ZERO);
+            return new Check(value -> zero.compare(value) >= 0, false, message);
+        }
+        if (annotation instanceof Negative) {
+            Bound zero = numericBound(annotation, valueType, BigDecimal.ZERO);
+            return new Check(value -> zero.compare(value) < 0, false, message);
+        }
+        if (annotation instanceof NegativeOrZero) {
+            Bound zero = numericBound(annotation, valueType, BigDecimal.ZERO);
+            return new Check(value -> zero.compare(value) <= 0, false, message);
+        }
+        throw unsupported(annotation, valueType);
+    }
+
+    // A numeric bound pre-converted for the common value types so comparisons don't allocate
+    private record Bound(BigDecimal decimal, double asDouble, long asLong, boolean integral) {
+
+        static Bound of(BigDecimal decimal) {
+            boolean integral = decimal.signum() == 0 || decimal.stripTrailingZeros().scale() <= 0;
+            long asLong = integral ? decimal.longValueExact() : 0L;
+            return new Bound(decimal, decimal.doubleValue(), asLong, integral);
+        }
+
+        int compare(Object value) {
+            if (value instanceof BigDecimal decimalValue) {
+                return decimalValue.compareTo(decimal);
+            }
+            if (value instanceof BigInteger bigInteger) {
+                return new BigDecimal(bigInteger).compareTo(decimal);
+            }
+            if (value instanceof Double || value instanceof Float) {
+                return Double.compare(((Number) value).doubleValue(), asDouble);
+            }
+            long longValue = ((Number) value).longValue();
+            return integral ? Long.compare(longValue, asLong) : BigDecimal.valueOf(longValue).compareTo(decimal);
+        }
+    }
+
+    private static Bound numericBound(Annotation annotation, Class<?> valueType, BigDecimal bound) {
+        requireType(annotation, valueType, Number.class);
+        return Bound.of(bound);
+    }
+
+    private static int sizeOf(Object value) {
+        if (value instanceof CharSequence chars) {
+            return chars.length();
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return ((Map<?, ?>) value).size();
+    }
+
+    private static int flags(Pattern pattern) {
+        int flags = 0;
+        for (Pattern.Flag flag : pattern.flags()) {
+            flags |= flag.getValue();
+        }
+        return flags;
+    }
+
+    private static void requireSized(Annotation annotation, Class<?> valueType) {
+        if (!CharSequence.class.isAssignableFrom(valueType)
+                && !Collection.class.isAssignableFrom(valueType)
+                && !Map.class.isAssignableFrom(valueType)) {
+            throw unsupported(annotation, valueType);
+        }
+    }
+
+    private static void requireType(Annotation annotation, Class<?> valueType, Class<?> expected) {
+        if (!expected.isAssignableFrom(valueType)) {
+            throw unsupported(annotation, valueType);
+        }
+    }
+
+    private static IllegalStateException unsupported(Annotation annotation, Class<?> valueType) {
+        return new IllegalStateException("ValidationEngine does not support @"
+                + annotation.annotationType().getSimpleName() + " on " + valueType.getName());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.fullrestapi.validation;
+
+import com.example.fullrestapi.domain.dto.AuthorDto;
+import com.example.fullrestapi.domain.dto.BookDto;
+import com.example.fullrestapi.domain.dto.RatingsDto;
+import com.example.fullrestapi.exception.PayloadValidationException;
+import jakarta.validation.MessageInterpolator;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.ContainerElementTypeDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates request payloads against the Bean Validation annotations on their DTOs.
+ * The annotations are read once per class into a {@link ValidationPlan}; validating a
+ * payload afterwards only calls getters and precompiled predicates.
+ */
+@Component
+public class ValidationEngine {
+
+    // Compiled at startup so an unsupported constraint fails the boot, not the first request
+    private static final List<Class<?>> PAYLOAD_TYPES = List.of(AuthorDto.class, BookDto.class, RatingsDto.class);
+
+    private static final Comparator<ConstraintChecks.Check> NULL_CHECKS_FIRST =
+            Comparator.comparing(check -> !check.rejectsNull());
+
+    private final Validator validator;
+    private final MessageInterpolator messageInterpolator;
+    private final Map<Class<?>, ValidationPlan> plans = new ConcurrentHashMap<>();
+
+    public ValidationEngine(ValidatorFactory validatorFactory) {
+        this.validator = validatorFactory.getValidator();
+        this.messageInterpolator = validatorFactory.getMessageInterpolator();
+        PAYLOAD_TYPES.forEach(type -> planFor(type, new ArrayDeque<>()));
+    }
+
+    // Field path -> message for every invalid field; empty when the payload is valid
+    public Map<String, String> check(Object payload, ValidationMode mode) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        planFor(payload.getClass(), new ArrayDeque<>()).validate(payload, mode, "", errors);
+        return errors;
+    }
+
+    public void validate(Object payload, ValidationMode mode) {
+        Map<String, String> errors = check(payload, mode);
+        if (!errors.isEmpty()) {
+            throw new PayloadValidationException(errors);
+        }
+    }
+
+    private ValidationPlan planFor(Class<?> type, Deque<Class<?>> building) {
+        ValidationPlan plan = plans.get(type);
+        if (plan != null) {
+            return plan;
+        }
+        if (building.contains(type)) {
+            throw new IllegalStateException("Cyclic @Valid cascade through " + type.getName());
+        }
+        building.push(type);
+        plan = compile(type, building);
+        building.pop();
+        ValidationPlan existing = plans.putIfAbsent(type, plan);
+        return existing != null ? existing : plan;
+    }
+
+    private ValidationPlan compile(Class<?> type, Deque<Class<?>> building) {
+        BeanDescriptor bean = validator.getConstraintsForClass(type);
+        if (!bean.getConstraintDescriptors().isEmpty()) {
+            throw new IllegalStateException("Class-level constraints are not supported on " + type.getName());
+        }
+
+        List<ValidationPlan.PropertyRule> rules = new ArrayList<>();
+        bean.getConstrainedProperties().stream()
+                .sorted(Comparator.comparing(PropertyDescriptor::getPropertyName))
+                .forEach(property -> {
+                    List<ConstraintChecks.Check> elementChecks = new ArrayList<>();
+                    for (ContainerElementTypeDescriptor element : property.getConstrainedContainerElementTypes()) {
+                        if (element.isCascaded()) {
+                            throw new IllegalStateException("@Valid on container elements is not supported: "
+                                    + type.getName() + "." + property.getPropertyName());
+                        }
+                        elementChecks.addAll(compileChecks(element.getConstraintDescriptors(), element.getElementClass()));
+                    }
+                    elementChecks.sort(NULL_CHECKS_FIRST);
+
+                    List<ConstraintChecks.Check> checks = new ArrayList<>(
+                            compileChecks(property.getConstraintDescriptors(), property.getElementClass()));
+                    checks.sort(NULL_CHECKS_FIRST);
+
+                    ValidationPlan nested = property.isCascaded() ? planFor(property.getElementClass(), building) : null;
+                    rules.add(new ValidationPlan.PropertyRule(property.getPropertyName(),
+                            getter(type, property.getPropertyName()), checks, elementChecks, nested));
+                });
+        java.beans.PropertyDescriptor id = BeanUtils.getPropertyDescriptor(type, "id");
+        return new ValidationPlan(rules, id != null && id.getReadMethod() != null ? getter(type, "id") : null);
+    }
+
+    private List<ConstraintChecks.Check> compileChecks(Set<ConstraintDescriptor<?>> descriptors, Class<?> valueType) {
+        return descriptors.stream()
+                .filter(descriptor -> descriptor.getGroups().contains(Default.class))
+                .map(descriptor -> ConstraintChecks.compile(descriptor, valueType, message(descriptor)))
+                .toList();
+    }
+
+    // Literal messages (the DTOs' convention) are used as-is; templates are interpolated once here
+    private String message(ConstraintDescriptor<?> descriptor) {
+        String template = descriptor.getMessageTemplate();
+        if (template.indexOf('{') < 0) {
+            return template;
+        }
+        return messageInterpolator.interpolate(template, new MessageInterpolator.Context() {
+            @Override
+            public ConstraintDescriptor<?> getConstraintDescriptor() {
+                return descriptor;
+            }
+
+            @Override
+            public Object getValidatedValue() {
+                return null;
+            }
+
+            @Override
+            public <T> T unwrap(Class<T> type) {
+                throw new ValidationException("Cannot unwrap " + type.getName());
+            }
+        });
+    }
+
+    private static MethodHandle getter(Class<?> type, String property) {
+        java.beans.PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+        if (descriptor == null || descriptor.getReadMethod() == null) {
+            throw new IllegalStateException("No getter for constrained property " + type.getName() + "." + property);
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect(descriptor.getReadMethod())
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Getter is not accessible: " + descriptor.getReadMethod(), ex);
+        }
+    }
+}
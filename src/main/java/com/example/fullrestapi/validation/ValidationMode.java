@@ -0,0 +1,8 @@
+package com.example.fullrestapi.validation;
+
+public enum ValidationMode {
+    // POST / PUT: every constraint applies, missing required fields are errors
+    FULL,
+    // PATCH: only the fields present in the payload (non-null) are checked
+    PARTIAL
+}
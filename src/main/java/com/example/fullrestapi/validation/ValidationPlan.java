@@ -0,0 +1,76 @@
+package com.example.fullrestapi.validation;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Map;
+
+// Precompiled checks for one payload class: a getter handle and a list of predicates per property
+final class ValidationPlan {
+
+    record PropertyRule(String name,
+                        MethodHandle getter,
+                        List<ConstraintChecks.Check> checks,
+                        List<ConstraintChecks.Check> elementChecks,
+                        ValidationPlan nested) {
+    }
+
+    private final List<PropertyRule> rules;
+    private final MethodHandle idGetter; // null when the class has no id property
+
+    ValidationPlan(List<PropertyRule> rules, MethodHandle idGetter) {
+        this.rules = List.copyOf(rules);
+        this.idGetter = idGetter;
+    }
+
+    // Records the first failing message per field into errors, keyed by its path (author.name, ratings[2])
+    void validate(Object bean, ValidationMode mode, String prefix, Map<String, String> errors) {
+        for (PropertyRule rule : rules) {
+            Object value = read(rule.getter(), bean);
+            if (value == null && mode == ValidationMode.PARTIAL) {
+                continue; // field not sent in the patch
+            }
+            String path = prefix + rule.name();
+
+            if (!apply(rule.checks(), value, path, errors)) {
+                continue;
+            }
+            if (value instanceof Iterable<?> elements && !rule.elementChecks().isEmpty()) {
+                int index = 0;
+                for (Object element : elements) {
+                    apply(rule.elementChecks(), element, path + "[" + index++ + "]", errors);
+                }
+            }
+            // A nested object with an id is merged into its existing row (see BookServiceImpl.mergeAuthorFields),
+            // so it is checked like a patch; one without an id is inserted and gets the parent's mode
+            if (value != null && rule.nested() != null) {
+                ValidationMode nestedMode = rule.nested().isNew(value) ? mode : ValidationMode.PARTIAL;
+                rule.nested().validate(value, nestedMode, path + ".", errors);
+            }
+        }
+    }
+
+    private boolean isNew(Object bean) {
+        return idGetter == null || read(idGetter, bean) == null;
+    }
+
+    private static boolean apply(List<ConstraintChecks.Check> checks, Object value, String path,
+                                 Map<String, String> errors) {
+        for (ConstraintChecks.Check check : checks) {
+            if (!check.passes(value)) {
+                errors.putIfAbsent(path, check.message());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object read(MethodHandle getter, Object bean) {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
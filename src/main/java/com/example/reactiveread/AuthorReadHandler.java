@@ -0,0 +1,56 @@
+package com.example.reactiveread;
+
+import com.example.fullrestapi.domain.dto.AuthorDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Same responses as AuthorController's GET endpoints
+@Component
+public class AuthorReadHandler {
+
+    private final ReactiveAuthorRepository authorRepository;
+    private final int maxPageSize;
+
+    public AuthorReadHandler(ReactiveAuthorRepository authorRepository,
+                             @Value("${app.admission.max-page-size}") int maxPageSize) {
+        this.authorRepository = authorRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Page<AuthorDto> JSON, as returned by the servlet API
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        return pageable(request)
+                .flatMap(pageable -> Mono.zip(authorRepository.findAll(pageable).collectList(), authorRepository.count())
+                        .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2())))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    // Accept: application/x-ndjson streams every author (page and size are ignored)
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        return pageable(request).flatMap(pageable -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(authorRepository.streamAll(pageable), AuthorDto.class));
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        return Mono.fromCallable(() -> Long.valueOf(request.pathVariable("id")))
+                .flatMap(authorRepository::findById)
+                .flatMap(author -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(author))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.NOT_FOUND)
+                        .bodyValue(Map.of("error", "Author not found"))));
+    }
+
+    // Parsed inside the pipeline so a bad ?sort= reaches the router's error handler
+    private Mono<Pageable> pageable(ServerRequest request) {
+        return Mono.fromCallable(() -> PageQuery.of(request, ReactiveAuthorRepository.SORT_COLUMNS, maxPageSize));
+    }
+}
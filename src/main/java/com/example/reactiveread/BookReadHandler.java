@@ -0,0 +1,50 @@
+package com.example.reactiveread;
+
+import com.example.fullrestapi.domain.dto.BookDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+// Same responses as BookController's GET endpoints
+@Component
+public class BookReadHandler {
+
+    private final ReactiveBookRepository bookRepository;
+    private final int maxPageSize;
+
+    public BookReadHandler(ReactiveBookRepository bookRepository,
+                           @Value("${app.admission.max-page-size}") int maxPageSize) {
+        this.bookRepository = bookRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Page<BookDto> JSON, as returned by the servlet API
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        return pageable(request)
+                .flatMap(pageable -> Mono.zip(bookRepository.findAll(pageable).collectList(), bookRepository.count())
+                        .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2())))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    // Accept: application/x-ndjson streams every book (page and size are ignored)
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        return pageable(request).flatMap(pageable -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookRepository.streamAll(pageable), BookDto.class));
+    }
+
+    public Mono<ServerResponse> findByIsbn(ServerRequest request) {
+        return bookRepository.findByIsbn(request.pathVariable("isbn"))
+                .flatMap(book -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(book))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    private Mono<Pageable> pageable(ServerRequest request) {
+        return Mono.fromCallable(() -> PageQuery.of(request, ReactiveBookRepository.SORT_COLUMNS, maxPageSize));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.reactiveread;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The reactive counterpart of @ElementCollection + @BatchSize: one query per collection table for a
+// whole batch of owners, grouped by owner in table order
+final class ElementCollections {
+
+    private record Element<K, V>(K owner, V value) {
+    }
+
+    private ElementCollections() {
+    }
+
+    static <K, V> Mono<Map<K, List<V>>> load(DatabaseClient databaseClient, String table, String ownerColumn,
+                                             String valueColumn, Class<K> ownerType, Class<V> valueType,
+                                             K[] owners) {
+        return databaseClient.sql("SELECT " + ownerColumn + ", " + valueColumn + " FROM " + table
+                        + " WHERE " + ownerColumn + " = ANY(:owners)")
+                .bind("owners", owners)
+                .map((row, metadata) -> new Element<>(row.get(ownerColumn, ownerType), row.get(valueColumn, valueType)))
+                .all()
+                .collect(HashMap::new, (Map<K, List<V>> byOwner, Element<K, V> element) ->
+                        byOwner.computeIfAbsent(element.owner(), owner -> new ArrayList<>()).add(element.value()));
+    }
+
+    static <K, V> List<V> of(Map<K, List<V>> byOwner, K owner) {
+        return byOwner.getOrDefault(owner, new ArrayList<>());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.reactiveread;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// ?page=&size=&sort=property,dir as understood by the servlet controllers' Pageable arguments.
+// Sort properties end up in the SQL text, so only whitelisted ones are accepted (mapped to columns).
+final class PageQuery {
+
+    static final int DEFAULT_SIZE = 20;
+
+    private PageQuery() {
+    }
+
+    // maxSize is app.admission.max-page-size, the servlet API's limit
+    static Pageable of(ServerRequest request, Map<String, String> sortColumns, int maxSize) {
+        int page = Math.max(intParam(request, "page", 0), 0);
+        int size = intParam(request, "size", DEFAULT_SIZE);
+        size = size < 1 ? DEFAULT_SIZE : Math.min(size, maxSize);
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String sort : request.queryParams().getOrDefault("sort", List.of())) {
+            String[] parts = sort.split(",");
+            if (!sortColumns.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Unsupported sort property: " + parts[0]);
+            }
+            Sort.Direction direction = parts.length > 1
+                    ? Sort.Direction.fromOptionalString(parts[1]).orElse(Sort.Direction.ASC)
+                    : Sort.Direction.ASC;
+            orders.add(new Sort.Order(direction, parts[0]));
+        }
+        return PageRequest.of(page, size, Sort.by(orders));
+    }
+
+    // ORDER BY for the requested sort, always ending on the key so rows never shift between pages
+    static String orderBy(Sort sort, Map<String, String> sortColumns, String keyColumn) {
+        String requested = sort.stream()
+                .map(order -> sortColumns.get(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", "));
+        return " ORDER BY " + (requested.isEmpty() ? keyColumn : requested + ", " + keyColumn);
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        try {
+            return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+        } catch (NumberFormatException ex) {
+            return defaultValue;   // Spring Data's resolver falls back the same way
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.reactiveread;
+
+import com.example.fullrestapi.domain.dto.AuthorDto;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Reads straight into AuthorDto rows over the tables mapped by AuthorEntity
+@Repository
+public class ReactiveAuthorRepository {
+
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "age", "age",
+            "rating", "rating",
+            "totalBooks", "total_books");
+
+    private static final String SELECT =
+            "SELECT id, name, age, active, rating, total_books, wealth, followers FROM authors";
+
+    private final DatabaseClient databaseClient;
+    private final int batchSize;
+
+    public ReactiveAuthorRepository(DatabaseClient databaseClient,
+                                    @Value("${app.reactive.batch-size:100}") int batchSize) {
+        this.databaseClient = databaseClient;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<AuthorDto> findById(Long id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toDto(row, ""))
+                .one()
+                .flatMap(author -> attachCollections(List.of(author)))
+                .map(authors -> authors.get(0));
+    }
+
+    public Flux<AuthorDto> findAll(Pageable pageable) {
+        return inBatches(databaseClient.sql(SELECT
+                        + PageQuery.orderBy(pageable.getSort(), SORT_COLUMNS, "id")
+                        + " LIMIT :limit OFFSET :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map((row, metadata) -> toDto(row, ""))
+                .all());
+    }
+
+    // Every author in the requested order, read only as fast as the subscriber requests
+    public Flux<AuthorDto> streamAll(Pageable pageable) {
+        return inBatches(databaseClient.sql(SELECT + PageQuery.orderBy(pageable.getSort(), SORT_COLUMNS, "id"))
+                .map((row, metadata) -> toDto(row, ""))
+                .all());
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM authors")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    // Fills genres and scores of the given authors (duplicates allowed) with one query per collection
+    Mono<List<AuthorDto>> attachCollections(List<AuthorDto> authors) {
+        Long[] ids = authors.stream().map(AuthorDto::getId).distinct().toArray(Long[]::new);
+        return Mono.zip(
+                        ElementCollections.load(databaseClient, "author_genres", "author_id", "genre",
+                                Long.class, String.class, ids),
+                        ElementCollections.load(databaseClient, "author_scores", "author_id", "score",
+                                Long.class, Integer.class, ids))
+                .map(collections -> {
+                    for (AuthorDto author : authors) {
+                        author.setGenres(ElementCollections.of(collections.getT1(), author.getId()));
+                        author.setScores(ElementCollections.of(collections.getT2(), author.getId()));
+                    }
+                    return authors;
+                });
+    }
+
+    // Columns may be prefixed when the author is joined into another select (see ReactiveBookRepository)
+    static AuthorDto toDto(Row row, String prefix) {
+        BigDecimal followers = row.get(prefix + "followers", BigDecimal.class);
+        return AuthorDto.builder()
+                .id(row.get(prefix + "id", Long.class))
+                .name(row.get(prefix + "name", String.class))
+                .age(row.get(prefix + "age", Integer.class))
+                .active(row.get(prefix + "active", Boolean.class))
+                .rating(row.get(prefix + "rating", Double.class))
+                .totalBooks(row.get(prefix + "total_books", Integer.class))
+                .wealth(row.get(prefix + "wealth", BigDecimal.class))
+                .followers(followers == null ? null : followers.toBigInteger())
+                .build();
+    }
+
+    // Rows are grouped so each batch costs one query per collection table (prefetch 1 keeps the
+    // demand passed up to the row stream at a single batch)
+    private Flux<AuthorDto> inBatches(Flux<AuthorDto> rows) {
+        return rows.buffer(batchSize)
+                .concatMap(this::attachCollections, 1)
+                .concatMapIterable(authors -> authors);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.reactiveread;
+
+import com.example.fullrestapi.domain.dto.BookDto;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Books joined to their author in one select; tags, ratings and the author's collections are
+// loaded per batch of rows, like the JPA read path's join fetch plus @BatchSize
+@Repository
+public class ReactiveBookRepository {
+
+    static final Map<String, String> SORT_COLUMNS = Map.of(
+            "isbn", "b.isbn",
+            "title", "b.title",
+            "pages", "b.pages",
+            "price", "b.price",
+            "published", "b.published");
+
+    private static final String SELECT = "SELECT b.isbn, b.title, b.published, b.pages, b.price,"
+            + " a.id AS a_id, a.name AS a_name, a.age AS a_age, a.active AS a_active, a.rating AS a_rating,"
+            + " a.total_books AS a_total_books, a.wealth AS a_wealth, a.followers AS a_followers"
+            + " FROM books b JOIN authors a ON a.id = b.author_id";
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveAuthorRepository authorRepository;
+    private final int batchSize;
+
+    public ReactiveBookRepository(DatabaseClient databaseClient, ReactiveAuthorRepository authorRepository,
+                                  @Value("${app.reactive.batch-size:100}") int batchSize) {
+        this.databaseClient = databaseClient;
+        this.authorRepository = authorRepository;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<BookDto> findByIsbn(String isbn) {
+        return databaseClient.sql(SELECT + " WHERE b.isbn = :isbn")
+                .bind("isbn", isbn)
+                .map((row, metadata) -> toDto(row))
+                .one()
+                .flatMap(book -> attachCollections(List.of(book)))
+                .map(books -> books.get(0));
+    }
+
+    public Flux<BookDto> findAll(Pageable pageable) {
+        return inBatches(databaseClient.sql(SELECT
+                        + PageQuery.orderBy(pageable.getSort(), SORT_COLUMNS, "b.isbn")
+                        + " LIMIT :limit OFFSET :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map((row, metadata) -> toDto(row))
+                .all());
+    }
+
+    // Every book in the requested order, read only as fast as the subscriber requests
+    public Flux<BookDto> streamAll(Pageable pageable) {
+        return inBatches(databaseClient.sql(SELECT + PageQuery.orderBy(pageable.getSort(), SORT_COLUMNS, "b.isbn"))
+                .map((row, metadata) -> toDto(row))
+                .all());
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM books")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    private Mono<List<BookDto>> attachCollections(List<BookDto> books) {
+        String[] isbns = books.stream().map(BookDto::getIsbn).toArray(String[]::new);
+        return Mono.zip(
+                        ElementCollections.load(databaseClient, "book_tags", "book_isbn", "tag",
+                                String.class, String.class, isbns),
+                        ElementCollections.load(databaseClient, "book_ratings", "book_isbn", "rating",
+                                String.class, Double.class, isbns),
+                        authorRepository.attachCollections(books.stream().map(BookDto::getAuthor).toList()))
+                .map(collections -> {
+                    for (BookDto book : books) {
+                        book.setTags(ElementCollections.of(collections.getT1(), book.getIsbn()));
+                        book.setRatings(ElementCollections.of(collections.getT2(), book.getIsbn()));
+                    }
+                    return books;
+                });
+    }
+
+    private static BookDto toDto(Row row) {
+        return BookDto.builder()
+                .isbn(row.get("isbn", String.class))
+                .title(row.get("title", String.class))
+                .published(row.get("published", Boolean.class))
+                .pages(row.get("pages", Integer.class))
+                .price(row.get("price", BigDecimal.class))
+                .author(ReactiveAuthorRepository.toDto(row, "a_"))
+                .build();
+    }
+
+    private Flux<BookDto> inBatches(Flux<BookDto> rows) {
+        return rows.buffer(batchSize)
+                .concatMap(this::attachCollections, 1)
+                .concatMapIterable(books -> books);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.reactiveread;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+// Second entry point serving GET /authors, /authors/{id}, /books and /books/{isbn} on WebFlux + R2DBC:
+// a few event-loop threads instead of a thread per request, and NDJSON list streams that only read
+// from the database as fast as the client drains them. It lives outside com.example.fullrestapi so
+// neither application's component scan picks up the other's beans; writes stay on FullRestApiApplication.
+// See application-reactive.yml.
+@SpringBootApplication
+public class ReactiveReadApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
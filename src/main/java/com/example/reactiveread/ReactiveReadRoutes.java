@@ -0,0 +1,36 @@
+package com.example.reactiveread;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Map;
+
+@Configuration(proxyBeanMethods = false)
+public class ReactiveReadRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> readRoutes(AuthorReadHandler authors, BookReadHandler books) {
+        return RouterFunctions.route()
+                .GET("/authors", ReactiveReadRoutes::acceptsNdjson, authors::stream)
+                .GET("/authors", authors::findAll)
+                .GET("/authors/{id}", authors::findById)
+                .GET("/books", ReactiveReadRoutes::acceptsNdjson, books::stream)
+                .GET("/books", books::findAll)
+                .GET("/books/{isbn}", books::findByIsbn)
+                // Same 400 body as GlobalExceptionHandler gives bad input on the servlet side
+                .onError(IllegalArgumentException.class, (ex, request) -> ServerResponse.badRequest()
+                        .bodyValue(Map.of("error", String.valueOf(ex.getMessage()))))
+                .build();
+    }
+
+    // Explicitly asked for, so */* and plain JSON clients keep getting the page
+    private static boolean acceptsNdjson(ServerRequest request) {
+        return request.headers().accept().stream()
+                .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.reactiveread;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+// The handlers read tags, ratings, genres and scores from the side tables (ElementCollections). A
+// database moved to the array-storage layout has none, so refuse to start rather than fail every read.
+@Component
+public class SideTableLayoutCheck implements ApplicationRunner {
+
+    private final DatabaseClient databaseClient;
+
+    public SideTableLayoutCheck(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Boolean arrayStorage = databaseClient.sql("SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+                        + "WHERE table_schema = current_schema() AND table_name = 'books' AND column_name = 'tags')")
+                .map(row -> row.get(0, Boolean.class))
+                .one()
+                .block();
+        if (Boolean.TRUE.equals(arrayStorage)) {
+            throw new IllegalStateException("books.tags is an array column (array-storage layout); "
+                    + "the reactive read API only reads the default side-table layout");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+-- Moves element collections from the side tables into array columns on authors/books, for a
+-- database that outlives ddl-auto (validate/none). Run once, then start with the array-storage
+-- profile. The lists are bags (no order column), so elements keep their physical row order.
+BEGIN;
+
+ALTER TABLE authors ADD COLUMN genres varchar(255)[];
+ALTER TABLE authors ADD COLUMN scores integer[];
+ALTER TABLE books ADD COLUMN tags varchar(255)[];
+ALTER TABLE books ADD COLUMN ratings float(53)[];
+
+UPDATE authors a SET genres = g.elements
+FROM (SELECT author_id, array_agg(genre ORDER BY ctid) AS elements FROM author_genres GROUP BY author_id) g
+WHERE g.author_id = a.id;
+
+UPDATE authors a SET scores = s.elements
+FROM (SELECT author_id, array_agg(score ORDER BY ctid) AS elements FROM author_scores GROUP BY author_id) s
+WHERE s.author_id = a.id;
+
+UPDATE books b SET tags = t.elements
+FROM (SELECT book_isbn, array_agg(tag ORDER BY ctid) AS elements FROM book_tags GROUP BY book_isbn) t
+WHERE t.book_isbn = b.isbn;
+
+UPDATE books b SET ratings = r.elements
+FROM (SELECT book_isbn, array_agg(rating ORDER BY ctid) AS elements FROM book_ratings GROUP BY book_isbn) r
+WHERE r.book_isbn = b.isbn;
+
+-- Owners without elements read back as an empty list, as they did from the side tables
+UPDATE authors SET genres = '{}' WHERE genres IS NULL;
+UPDATE authors SET scores = '{}' WHERE scores IS NULL;
+UPDATE books SET tags = '{}' WHERE tags IS NULL;
+UPDATE books SET ratings = '{}' WHERE ratings IS NULL;
+
+-- Replaces book_tags(tag, book_isbn) for the ?tag= filter, which becomes an array containment test
+CREATE INDEX idx_books_tags ON books USING gin (tags);
+
+-- Cached authors still hold the side-table layout: restart (or evict the authors regions) after this
+DROP TABLE author_genres, author_scores, book_tags, book_ratings;
+
+COMMIT;
@@ -0,0 +1,24 @@
+-- Back to the side tables (default profile). unnest WITH ORDINALITY keeps each list's order.
+BEGIN;
+
+CREATE TABLE author_genres (author_id bigint NOT NULL REFERENCES authors, genre varchar(255));
+CREATE TABLE author_scores (author_id bigint NOT NULL REFERENCES authors, score integer);
+CREATE TABLE book_tags (book_isbn varchar(255) NOT NULL REFERENCES books, tag varchar(255));
+CREATE TABLE book_ratings (book_isbn varchar(255) NOT NULL REFERENCES books, rating float(53));
+
+INSERT INTO author_genres SELECT a.id, e.genre
+FROM authors a, unnest(a.genres) WITH ORDINALITY AS e(genre, n) ORDER BY a.id, e.n;
+INSERT INTO author_scores SELECT a.id, e.score
+FROM authors a, unnest(a.scores) WITH ORDINALITY AS e(score, n) ORDER BY a.id, e.n;
+INSERT INTO book_tags SELECT b.isbn, e.tag
+FROM books b, unnest(b.tags) WITH ORDINALITY AS e(tag, n) ORDER BY b.isbn, e.n;
+INSERT INTO book_ratings SELECT b.isbn, e.rating
+FROM books b, unnest(b.ratings) WITH ORDINALITY AS e(rating, n) ORDER BY b.isbn, e.n;
+
+-- The ?tag= filter goes back to this index; idx_books_tags goes away with the tags column
+CREATE INDEX idx_book_tags_tag ON book_tags (tag, book_isbn);
+
+ALTER TABLE authors DROP COLUMN genres, DROP COLUMN scores;
+ALTER TABLE books DROP COLUMN tags, DROP COLUMN ratings;
+
+COMMIT;
@@ -0,0 +1,36 @@
+-- Rebuilds author_stats from books: for a database that outlives ddl-auto, or after a crash dropped
+-- deltas that were not flushed yet. Stop writers (or accept their in-flight deltas being lost) first.
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS author_stats (
+    author_id    bigint PRIMARY KEY,
+    book_count   bigint NOT NULL,
+    rating_count bigint NOT NULL,
+    rating_sum   double precision NOT NULL,
+    price_total  numeric(38, 2)
+);
+
+TRUNCATE author_stats;
+
+-- Ratings come from book_ratings, or from books.ratings once array-storage-migrate.sql has dropped it
+DO $$
+BEGIN
+    IF to_regclass('book_ratings') IS NOT NULL THEN
+        INSERT INTO author_stats (author_id, book_count, rating_count, rating_sum, price_total)
+        SELECT b.author_id, count(*), coalesce(sum(r.n), 0), coalesce(sum(r.total), 0), coalesce(sum(b.price), 0)
+        FROM books b
+        LEFT JOIN (SELECT book_isbn, count(rating) AS n, sum(rating) AS total FROM book_ratings GROUP BY book_isbn) r
+               ON r.book_isbn = b.isbn
+        WHERE b.author_id IS NOT NULL
+        GROUP BY b.author_id;
+    ELSE
+        INSERT INTO author_stats (author_id, book_count, rating_count, rating_sum, price_total)
+        SELECT b.author_id, count(*), coalesce(sum(r.n), 0), coalesce(sum(r.total), 0), coalesce(sum(b.price), 0)
+        FROM books b
+        CROSS JOIN LATERAL (SELECT count(rating) AS n, sum(rating) AS total FROM unnest(b.ratings) AS rating) r
+        WHERE b.author_id IS NOT NULL
+        GROUP BY b.author_id;
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- Full-text search columns for a database that outlives ddl-auto (validate/none); schema generation
+-- creates the same through BookSearchSchema. search_tags is kept current by BookEntity from then on.
+BEGIN;
+
+ALTER TABLE books ADD COLUMN search_tags text;
+
+UPDATE books b SET search_tags = t.tags
+FROM (SELECT book_isbn, string_agg(tag, ' ') AS tags FROM book_tags GROUP BY book_isbn) t
+WHERE t.book_isbn = b.isbn;
+-- With the array-storage layout instead: UPDATE books SET search_tags = array_to_string(tags, ' ');
+
+ALTER TABLE books ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(search_tags, '')), 'B')) STORED;
+
+COMMIT;
+
+-- Outside the transaction so writes are not blocked while it builds
+CREATE INDEX CONCURRENTLY idx_books_search ON books USING gin (search_vector);
@@ -0,0 +1,111 @@
+package com.example.fullrestapi.Controller;
+
+import com.example.fullrestapi.Service.AuthorService;
+import com.example.fullrestapi.Service.BookService;
+import com.example.fullrestapi.Utils.TestDataUtils;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "app.admission.classes.lookups.rate-per-second=1",
+        "app.admission.classes.lookups.burst=2",
+        "app.admission.classes.ratings.max-concurrent=1",
+        "app.ratings.durability=committed",
+        "app.ratings.flush-interval=2s"})
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class AdmissionControlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testRateLimitedLookupsGet429WithRetryAfter() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Too many requests"));
+
+        // other classes keep their own budget
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(1.0, meterRegistry.get("app.admission.rejected")
+                .tag("class", "lookups").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    public void testFullEndpointClassGets503InsteadOfQueuing() throws Exception {
+        bookService.save("A-1", TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()));
+
+        // Holds the only ratings slot until its batch is flushed (flush-interval 2s)
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(MockMvcRequestBuilders.post("/books/A-1/ratings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"ratings\": [4.0]}"))
+                        .andReturn().getResponse().getStatus();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (meterRegistry.get("app.admission.in-flight").tag("class", "ratings").gauge().value() < 1) {
+            assertTrue(System.currentTimeMillis() < deadline, "first request never entered");
+            Thread.sleep(10);
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/A-1/ratings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ratings\": [3.0]}"))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+        // a different class is not affected
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/A-1"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertEquals(204, first.get());
+        assertEquals(1.0, meterRegistry.get("app.admission.rejected")
+                .tag("class", "ratings").tag("reason", "concurrency").counter().count());
+    }
+
+    @Test
+    public void testPageSizeAboveLimitIsRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "501"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("size must not exceed 500"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "500"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
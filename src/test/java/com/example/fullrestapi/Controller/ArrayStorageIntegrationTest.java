@@ -0,0 +1,78 @@
+package com.example.fullrestapi.Controller;
+
+import com.example.fullrestapi.Service.BookService;
+import com.example.fullrestapi.Utils.TestDataUtils;
+import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("array-storage")
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ArrayStorageIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testBookIsReadFromASingleRow() throws Exception {
+        AuthorEntity author = TestDataUtils.createAuthorFull();
+        BookEntity book = TestDataUtils.createBookFull(author);
+        bookService.save(book.getIsbn(), book);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tags[1]").value("Programming"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ratings[1]").value(4.5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author.scores[0]").value(95));
+
+        // book joined with its author, arrays included
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testPatchingAListUpdatesOnlyTheOwningRow() throws Exception {
+        AuthorEntity author = TestDataUtils.createAuthorFull();
+        BookEntity book = TestDataUtils.createBookFull(author);
+        bookService.save(book.getIsbn(), book);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\":[\"Java\",\"JVM\",\"Performance\"]}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tags.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tags[2]").value("Performance"));
+
+        // no collection delete + reinsert, just the version-checked UPDATE of the book row
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+}
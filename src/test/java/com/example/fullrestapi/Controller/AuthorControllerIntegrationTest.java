@@ -1,9 +1,17 @@
 package com.example.fullrestapi.Controller;
 
+import com.example.fullrestapi.Repository.AuthorStatsRepository;
 import com.example.fullrestapi.Service.AuthorService;
+import com.example.fullrestapi.Service.BookService;
 import com.example.fullrestapi.Utils.TestDataUtils;
 import com.example.fullrestapi.domain.entities.AuthorEntity;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import com.example.fullrestapi.stats.AuthorStatsAccumulator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +28,10 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
 
-@SpringBootTest
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ExtendWith(SpringExtension.class)
 @AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -32,6 +43,18 @@ public class AuthorControllerIntegrationTest {
     @Autowired
     private AuthorService authorService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorStatsAccumulator authorStatsAccumulator;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -114,6 +137,26 @@ public class AuthorControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isNoContent());
     }
 
+    @Test
+    public void testDeleteNonExistentAuthorReturns404() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/authors/9999"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testCreateDuplicateAuthorNameReturns409() throws Exception {
+        AuthorEntity existing = authorService.save(TestDataUtils.createAuthorFull());
+        AuthorEntity duplicate = TestDataUtils.createAuthorFull();
+        duplicate.setId(null);
+        duplicate.setName(existing.getName());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Author with this name already exists"));
+    }
+
     @Test
     public void testUpdateNonExistentAuthorReturns404() throws Exception {
         AuthorEntity author = TestDataUtils.createAuthorFull();
@@ -138,6 +181,40 @@ public class AuthorControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void testCreateAuthorWithInvalidFieldsReturnsFieldErrors() throws Exception {
+        AuthorEntity author = TestDataUtils.createAuthorFull();
+        author.setName("Bad$Name");
+        author.setAge(0);
+        author.setActive(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(author)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value("name must not contain special characters"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.age").value("age must be at least 1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.active").doesNotExist());
+    }
+
+    @Test
+    public void testPartialUpdateValidatesOnlyProvidedFields() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/authors/" + author.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Mary-Jane O'Neil\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value("Mary-Jane O'Neil"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/authors/" + author.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\":7.5}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rating").value("rating cannot exceed 5.0"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.age").doesNotExist());
+    }
+
     @Test
     public void testCreateAuthorWithEmptyCollections() throws Exception {
         AuthorEntity author = AuthorEntity.builder()
@@ -159,4 +236,233 @@ public class AuthorControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.scores").isEmpty());
     }
 
+    @Test
+    public void testCreateAuthorsBatch() throws Exception {
+        authorService.save(TestDataUtils.createAuthorFull()); // "Arther" already taken
+
+        AuthorEntity fresh = TestDataUtils.createAuthorFull();
+        fresh.setName("Batch Author");
+        AuthorEntity duplicateInBatch = TestDataUtils.createAuthorFull();
+        duplicateInBatch.setName("Batch Author");
+        AuthorEntity existing = TestDataUtils.createAuthorFull();
+        AuthorEntity invalid = TestDataUtils.createAuthorFull();
+        invalid.setName("Too Young");
+        invalid.setAge(0);
+
+        String json = objectMapper.writeValueAsString(List.of(fresh, duplicateInBatch, existing, invalid));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/authors/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].author.id").isNumber())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[0].author.genres[0]").value("Fantasy"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[2].status").value("CONFLICT"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.results[3].status").value("INVALID"));
+    }
+
+    @Test
+    public void testKeysetPaginationByName() throws Exception {
+        for (String name : List.of("Charlie", "Alice", "Bob")) {
+            AuthorEntity author = TestDataUtils.createAuthorFull();
+            author.setName(name);
+            authorService.save(author);
+        }
+
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/authors")
+                        .param("after", "")
+                        .param("size", "2")
+                        .param("sort", "name"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Alice"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].name").value("Bob"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors")
+                        .param("after", nextCursor)
+                        .param("size", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name").value("Charlie"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    public void testKeysetPaginationRejectsInvalidCursor() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors").param("after", "not-a-cursor"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testAuthorReadsAreServedFromCacheAndRefreshedOnWrite() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // First read warms the genres/scores regions
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.genres[0]").value("Fantasy"));
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertEquals(0, statistics.getPrepareStatementCount(), "author reads should not reach PostgreSQL");
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/authors/" + author.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 81}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.age").value(81));
+    }
+
+    @Test
+    public void testConditionalGetAuthorReturns304UntilUpdated() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()).header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", etag));
+        assertEquals(1, statistics.getPrepareStatementCount(), "a 304 should only run the version query");
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/authors/" + author.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 81}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId()).header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.age").value(81));
+    }
+
+    @Test
+    public void testAuthorStatsFollowBookWrites() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+
+        BookEntity first = TestDataUtils.createBookFull(author);                 // 49.99, ratings 5, 4.5, 5
+        bookService.save("111-1", first);
+        BookEntity second = TestDataUtils.createBookFull(author);
+        second.setPrice(new BigDecimal("20.00"));
+        second.setRatings(List.of(4.0));
+        bookService.save("111-2", second);
+        bookService.save("111-3", TestDataUtils.createBookFull(author));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/111-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 30}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/books/111-3"))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        authorStatsAccumulator.flush();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId() + "/stats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.bookCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ratingCount").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.averageRating").value(4.625))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalPrice").value(79.99));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/999999/stats"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testDeletedAuthorLeavesNoStatsRow() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+        bookService.save("111-1", TestDataUtils.createBookFull(author));
+        authorStatsAccumulator.flush();
+
+        // The book's removal is still pending when the author goes
+        mockMvc.perform(MockMvcRequestBuilders.delete("/books/111-1"))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/authors/" + author.getId()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        authorStatsAccumulator.flush();
+
+        assertTrue(authorStatsRepository.findById(author.getId()).isEmpty());
+    }
+
+    @Test
+    public void testListAuthorBooksAsSliceWithOptionalTotal() throws Exception {
+        AuthorEntity author = authorService.save(TestDataUtils.createAuthorFull());
+        AuthorEntity other = TestDataUtils.createAuthorFull();
+        other.setName("Other");
+        other = authorService.save(other);
+        for (String isbn : List.of("222-3", "222-1", "222-2")) {
+            bookService.save(isbn, TestDataUtils.createBookFull(author));
+        }
+        bookService.save("333-1", TestDataUtils.createBookFull(other));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId() + "/books?size=2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn").value("222-1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].author.name").value(author.getName()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+        assertEquals(1, statistics.getQueryExecutionCount(), "a slice should not run a count query");
+        assertEquals(0, statistics.getEntityStatistics(AuthorEntity.class.getName()).getFetchCount(),
+                "the author should not be fetched per book");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/" + author.getId() + "/books?page=1&size=2&total=true"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn").value("222-3"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors/999999/books"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testListAuthorsReusesCachedTotalUntilAnInsert() throws Exception {
+        for (String name : List.of("A1", "A2", "A3")) {
+            AuthorEntity author = TestDataUtils.createAuthorFull();
+            author.setName(name);
+            authorService.save(author);
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors?size=2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("X-Total-Count-Strategy", "cached"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(3));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors?size=2&page=0"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(3));
+        assertEquals(1, statistics.getQueryExecutionCount(), "the cached total should not be counted again");
+
+        AuthorEntity fourth = TestDataUtils.createAuthorFull();
+        fourth.setName("A4");
+        mockMvc.perform(MockMvcRequestBuilders.post("/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(fourth)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/authors?size=2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalPages").value(2));
+    }
 }
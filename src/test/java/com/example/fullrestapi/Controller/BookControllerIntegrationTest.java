@@ -4,7 +4,12 @@ import com.example.fullrestapi.Service.BookService;
 import com.example.fullrestapi.Utils.TestDataUtils;
 import com.example.fullrestapi.domain.entities.AuthorEntity;
 import com.example.fullrestapi.domain.entities.BookEntity;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,10 +22,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ExtendWith(SpringExtension.class)
 @AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -32,6 +42,9 @@ public class BookControllerIntegrationTest {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -108,6 +121,172 @@ public class BookControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Java Learn")); // unchanged
     }
 
+    @Test
+    public void testPatchScalarFieldsUpdatesColumnsWithoutLoadingTheBook() throws Exception {
+        BookEntity book = bookService.save(
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()).getIsbn(),
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull())
+        );
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+                .andReturn().getResponse().getHeader("ETag");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 39.99, \"published\": false}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.price").value(39.99))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.published").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Java Learn"))     // unchanged
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tags[0]").value("Java"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author.name").value("Arther"));
+
+        // A bulk UPDATE instead of a dirty-checked entity, and the author is not read from the database
+        assertEquals(0, statistics.getEntityStatistics(BookEntity.class.getName()).getUpdateCount());
+        assertEquals(0, statistics.getEntityStatistics(AuthorEntity.class.getName()).getLoadCount());
+
+        // The version still moves, so cached representations are invalidated
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()).header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.price").value(39.99));
+    }
+
+    @Test
+    public void testEmptyPatchKeepsTheVersion() throws Exception {
+        BookEntity book = bookService.save(
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()).getIsbn(),
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull())
+        );
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Java Learn"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()).header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/books/NO-SUCH-ISBN")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testSearchBooksRanksTitleMatchesFirstAndPagesAsSlice() throws Exception {
+        String[][] books = {
+                {"S-1", "Cooking Basics", "Java"},
+                {"S-2", "Java Concurrency", "Programming"},
+                {"S-3", "Gardening", "Plants"}
+        };
+        for (int i = 0; i < books.length; i++) {
+            BookEntity book = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+            book.setIsbn(books[i][0]);
+            book.setTitle(books[i][1]);
+            book.setTags(List.of(books[i][2]));
+            book.getAuthor().setName("Search Author " + (char) ('A' + i));
+            bookService.save(book.getIsbn(), book);
+        }
+
+        // "jav" is a prefix of both; the title match outranks the tag match
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search").param("q", "jav"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn").value("S-2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].isbn").value("S-1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search").param("q", "jav").param("size", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn").value("S-2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.last").value(false));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search").param("q", "java concur"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/search").param("q", " & !"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testListBooksAppliesFilters() throws Exception {
+        Long firstAuthorId = null;
+        for (int i = 0; i < 6; i++) {
+            BookEntity book = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+            book.setIsbn("Q-" + i);
+            book.setPrice(BigDecimal.valueOf(10L * (i + 1)));     // 10 .. 60
+            book.setPages(100 * (i + 1));                          // 100 .. 600
+            book.setPublished(i % 2 == 0);
+            book.setTags(i < 3 ? List.of("Java", "Programming") : List.of("Cooking"));
+            book.getAuthor().setName("Filter Author " + (char) ('A' + i));
+            BookEntity saved = bookService.save(book.getIsbn(), book);
+            if (firstAuthorId == null) {
+                firstAuthorId = saved.getAuthor().getId();
+            }
+        }
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books")
+                        .param("published", "true")
+                        .param("minPrice", "20")
+                        .param("maxPrice", "50")
+                        .param("sort", "isbn"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn").value("Q-2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].isbn").value("Q-4"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books")
+                        .param("tag", "Java")
+                        .param("minPages", "200"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("authorId", String.valueOf(firstAuthorId)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].isbn").value("Q-0"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("minPrice", "cheap"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testPatchBookReportsServerTimingAndMetrics() throws Exception {
+        BookEntity fixture = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+        BookEntity book = bookService.save(fixture.getIsbn(), fixture);
+        book.setPages(410);
+
+        String serverTiming = mockMvc.perform(MockMvcRequestBuilders.patch("/books/" + book.getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+        // Sent with the headers, before the body is serialized
+        assertTrue(serverTiming.matches("db;dur=[0-9.]+;desc=\"[1-9][0-9]* statements\", pool;dur=[0-9.]+, "
+                + "map;dur=[0-9.]+, total;dur=[0-9.]+"), serverTiming);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/app.request.phase")
+                        .param("tag", "uri:/books/{isbn}")
+                        .param("tag", "method:PATCH")
+                        .param("tag", "phase:map"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").value(1.0));
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/app.request.phase")
+                        .param("tag", "uri:/books/{isbn}")
+                        .param("tag", "method:PATCH")
+                        .param("tag", "phase:serialize"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.measurements[?(@.statistic == 'TOTAL_TIME')].value")
+                        .value(org.hamcrest.Matchers.contains(org.hamcrest.Matchers.greaterThan(0.0))));
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/app.service")
+                        .param("tag", "class:com.example.fullrestapi.Service.Impl.BookServiceImpl")
+                        .param("tag", "method:partialUpdate"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
     @Test
     public void testUpdateNonExistentBookReturns404() throws Exception {
         AuthorEntity author = TestDataUtils.createAuthorFull();
@@ -141,6 +320,34 @@ public class BookControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.ratings").isEmpty());
     }
 
+    @Test
+    public void testCreateInvalidBookReturnsFieldErrors() throws Exception {
+        BookEntity book = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+        book.setTitle(" ");
+        book.setRatings(List.of(4.0, 6.0));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/" + book.getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("title must not be empty"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$['ratings[1]']").value("ratings cannot exceed 5.0"));
+    }
+
+    @Test
+    public void testCreateBookValidatesNewAuthorLikeAPost() throws Exception {
+        AuthorEntity author = TestDataUtils.createAuthorFull();
+        author.setAge(null);
+        BookEntity book = TestDataUtils.createBookFull(author);
+
+        // No id, so the author is inserted and must be complete
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/" + book.getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(book)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$['author.age']").value("age is required"));
+    }
+
     @Test
     public void testCreateBookWithEmptyCollections() throws Exception {
         AuthorEntity author = TestDataUtils.createAuthorFull();
@@ -276,4 +483,207 @@ public class BookControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.author.name").value("Fresh Author"))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.author.genres[0]").value("Horror"));
     }
+
+    @Test
+    public void testBulkUpsertBooksFromNdjson() throws Exception {
+        BookEntity existing = bookService.save(
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()).getIsbn(),
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull())
+        );
+
+        BookEntity updated = TestDataUtils.createBookFull(AuthorEntity.builder().id(existing.getAuthor().getId()).build());
+        updated.setTitle("Java Learn 2nd Edition");
+        BookEntity created = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+        created.setIsbn("444-BULK-NEW");
+        created.getAuthor().setName("Bulk Author");
+        BookEntity unknownAuthor = TestDataUtils.createBookFull(AuthorEntity.builder().id(987654L).build());
+        unknownAuthor.setIsbn("555-BULK-MISSING");
+
+        String ndjson = objectMapper.writeValueAsString(updated) + "\n"
+                + objectMapper.writeValueAsString(created) + "\n"
+                + "{not json}\n"
+                + objectMapper.writeValueAsString(unknownAuthor) + "\n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.upserted").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].isbn").value("555-BULK-MISSING"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + existing.getIsbn()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Java Learn 2nd Edition"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/444-BULK-NEW"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author.name").value("Bulk Author"));
+    }
+
+    @Test
+    public void testBulkUpsertReportsTheRowTheDatabaseRejects() throws Exception {
+        bookService.save("888-BULK-TAKEN", TestDataUtils.createBookFull(TestDataUtils.createAuthorFull())); // "Arther" is taken
+
+        BookEntity good = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+        good.setIsbn("666-BULK-GOOD");
+        good.getAuthor().setName("Good Author");
+        BookEntity duplicateName = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+        duplicateName.setIsbn("777-BULK-DUP");
+        BookEntity missingAuthor = TestDataUtils.createBookFull(AuthorEntity.builder().id(987654L).build());
+        missingAuthor.setIsbn(good.getIsbn());
+
+        // Line 2 fails on uk_authors_name at flush; line 3 repeats line 1's ISBN
+        String ndjson = objectMapper.writeValueAsString(good) + "\n"
+                + objectMapper.writeValueAsString(duplicateName) + "\n"
+                + objectMapper.writeValueAsString(missingAuthor) + "\n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.upserted").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].error").value("Rejected by constraint uk_authors_name"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].line").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[1].error").value("Author not found"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + good.getIsbn()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author.name").value("Good Author"));
+    }
+
+    @Test
+    public void testExportBooksAsNdjsonAndCsv() throws Exception {
+        BookEntity book = bookService.save(
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()).getIsbn(),
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull())
+        );
+        BookEntity carriageReturn = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+        carriageReturn.setIsbn("CR-1");
+        carriageReturn.setTitle("Line\rBreak");
+        carriageReturn.getAuthor().setName("Other Author");
+        bookService.save(carriageReturn.getIsbn(), carriageReturn);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/export"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        org.hamcrest.Matchers.containsString("\"isbn\":\"" + book.getIsbn() + "\"")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/export").param("format", "csv"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(org.hamcrest.Matchers.startsWith(
+                        "isbn,title,published,pages,price,author_id,author_name,tags,ratings\n")))
+                .andExpect(MockMvcResultMatchers.content().string(org.hamcrest.Matchers.containsString(
+                        book.getIsbn() + ",Java Learn,true,350,49.99,")))
+                .andExpect(MockMvcResultMatchers.content().string(org.hamcrest.Matchers.containsString(
+                        ",Arther,Java|Programming,5.0|4.5|5.0\n")))
+                // A bare \r ends the record for RFC 4180 readers, so it is quoted like \n
+                .andExpect(MockMvcResultMatchers.content().string(org.hamcrest.Matchers.containsString(
+                        "CR-1,\"Line\rBreak\",")));
+    }
+
+    @Test
+    public void testListBooksUsesBoundedNumberOfQueries() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            BookEntity book = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+            book.setIsbn("N1-" + i);
+            book.getAuthor().setName("Author " + (char) ('A' + i));
+            bookService.save(book.getIsbn(), book);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "100"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()").value(10))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[9].author.genres[0]").value("Fantasy"))
+                // a first page that is not full knows its total without counting
+                .andExpect(MockMvcResultMatchers.header().string("X-Total-Count-Strategy", "exact"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").value(10));
+
+        // page joined with authors + tags + ratings + author genres + author scores, independent of
+        // page size; no count, since the page is not full
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 5, "expected at most 5 statements but was " + statements);
+
+        statistics.clear();
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/N1-3"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author.scores[0]").value(95));
+
+        // book joined with author + the four collections
+        statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 5, "expected at most 5 statements but was " + statements);
+    }
+
+    @Test
+    public void testConditionalGetBooksReturns304UntilAuthorChanges() throws Exception {
+        BookEntity book = bookService.save(
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()).getIsbn(),
+                TestDataUtils.createBookFull(TestDataUtils.createAuthorFull())
+        );
+
+        String bookTag = mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String pageTag = mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()).header("If-None-Match", bookTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "10").header("If-None-Match", pageTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        // The book JSON embeds its author, so an author update must invalidate both tags
+        mockMvc.perform(MockMvcRequestBuilders.patch("/authors/" + book.getAuthor().getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\": 81}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/" + book.getIsbn()).header("If-None-Match", bookTag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.author.age").value(81));
+        mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "10").header("If-None-Match", pageTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testListBooksNegotiatesCborAndGzip() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            BookEntity book = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+            book.setIsbn("F1-" + i);
+            book.getAuthor().setName("Format Author " + (char) ('A' + i));
+            bookService.save(book.getIsbn(), book);
+        }
+
+        byte[] cbor = mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "20")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode cborPage = new CBORMapper().readTree(cbor);
+        assertEquals(20, cborPage.get("content").size());
+        assertEquals("Java Learn", cborPage.get("content").get(0).get("title").asText());
+
+        byte[] gzipped = mockMvc.perform(MockMvcRequestBuilders.get("/books").param("size", "20")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(20, objectMapper.readTree(json).get("content").size());
+        }
+
+        // Small bodies stay uncompressed
+        mockMvc.perform(MockMvcRequestBuilders.get("/books/F1-0").header("Accept-Encoding", "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.isbn").value("F1-0"));
+    }
 }
@@ -0,0 +1,123 @@
+package com.example.fullrestapi.Controller;
+
+import com.example.fullrestapi.Service.BookService;
+import com.example.fullrestapi.domain.dto.BookFilterDto;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// EXPLAINs the statements BookSpecifications really produces, with the planner left at its defaults:
+// filter values are rendered inline so the captured SQL can be planned as is, and the table holds
+// enough rows for an index to beat a sequential scan wherever the filter is selective
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.fullrestapi.Controller.BookFilterIndexIntegrationTest$CapturedSql"})
+@ExtendWith(SpringExtension.class)
+@DirtiesContext
+public class BookFilterIndexIntegrationTest {
+
+    private static final int BOOKS = 50_000;
+    private static final long FIRST_AUTHOR_ID = 1_000_000;
+
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void seedBooks() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("insert into authors (id, name, version) select " + FIRST_AUTHOR_ID
+                    + " + g, 'Author ' || g, 0 from generate_series(0, 999) g");
+            statement.execute("insert into books (isbn, title, author_id, price, pages, published, version) "
+                    + "select 'isbn-' || g, 'Title ' || g, " + FIRST_AUTHOR_ID + " + g % 1000, g % 10000, "
+                    + "g % 5000, g % 2 = 0, 0 from generate_series(1, " + BOOKS + ") g");
+            statement.execute("insert into book_tags (book_isbn, tag) "
+                    + "select 'isbn-' || g, 'tag-' || g % 1000 from generate_series(1, " + BOOKS + ") g");
+            statement.execute("analyze authors");
+            statement.execute("analyze books");
+            statement.execute("analyze book_tags");
+        }
+    }
+
+    @Test
+    public void testBookFiltersHaveUsableIndexes() throws Exception {
+        BookFilterDto byAuthor = new BookFilterDto();
+        byAuthor.setAuthorId(FIRST_AUTHOR_ID + 7);
+        assertPlanUses(byAuthor, "idx_books_author_id");
+
+        BookFilterDto publishedInRange = new BookFilterDto();
+        publishedInRange.setPublished(true);
+        publishedInRange.setMinPrice(new BigDecimal("20"));
+        publishedInRange.setMaxPrice(new BigDecimal("50"));
+        assertPlanUses(publishedInRange, "idx_books_published_price");
+
+        BookFilterDto minPrice = new BookFilterDto();
+        minPrice.setMinPrice(new BigDecimal("9990"));
+        assertPlanUses(minPrice, "idx_books_price");
+
+        BookFilterDto pages = new BookFilterDto();
+        pages.setMinPages(200);
+        pages.setMaxPages(210);
+        assertPlanUses(pages, "idx_books_pages");
+
+        BookFilterDto tagged = new BookFilterDto();
+        tagged.setTag("tag-7");
+        assertPlanUses(tagged, "idx_book_tags_tag");
+    }
+
+    private void assertPlanUses(BookFilterDto filter, String index) throws Exception {
+        CapturedSql.STATEMENTS.clear();
+        bookService.findAll(filter, PageRequest.of(0, 20));
+        assertFalse(CapturedSql.STATEMENTS.isEmpty(), "no statement captured for " + filter);
+        // The page query runs first; the count and batch fetches follow it
+        String sql = CapturedSql.STATEMENTS.get(0);
+
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+            // Only the row limit is still a parameter
+            for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                explain.setInt(i, 20);
+            }
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+        }
+        assertTrue(plan.toString().contains(index), "expected " + index + " in plan of\n" + sql + "\n" + plan);
+    }
+}
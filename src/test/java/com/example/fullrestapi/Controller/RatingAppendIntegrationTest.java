@@ -0,0 +1,74 @@
+package com.example.fullrestapi.Controller;
+
+import com.example.fullrestapi.Service.BookService;
+import com.example.fullrestapi.Utils.TestDataUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// POST /books/{isbn}/ratings with app.ratings.durability=committed, where a response means the batch committed
+@SpringBootTest(properties = "app.ratings.durability=committed")
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@DirtiesContext
+public class RatingAppendIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Test
+    public void testAppendRatingsConcurrentlyWithoutLostUpdates() throws Exception {
+        bookService.save("R-1", TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()));  // 3 ratings
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/books/R-1"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            statuses.add(clients.submit(() -> mockMvc.perform(MockMvcRequestBuilders.post("/books/R-1/ratings")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ratings\": [4.0]}"))
+                    .andReturn().getResponse().getStatus()));
+        }
+        for (Future<Integer> status : statuses) {
+            assertEquals(204, status.get());
+        }
+        clients.shutdown();
+
+        String updatedEtag = mockMvc.perform(MockMvcRequestBuilders.get("/books/R-1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ratings.length()").value(23))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(!etag.equals(updatedEtag), "appending ratings should change the book's ETag");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/UNKNOWN/ratings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ratings\": [4.0]}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.post("/books/R-1/ratings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ratings\": [7.0]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$['ratings[0]']").value("ratings cannot exceed 5.0"));
+    }
+}
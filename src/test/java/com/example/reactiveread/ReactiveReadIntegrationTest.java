@@ -0,0 +1,131 @@
+package com.example.reactiveread;
+
+import com.example.fullrestapi.FullRestApiApplication;
+import com.example.fullrestapi.Service.BookService;
+import com.example.fullrestapi.Utils.TestDataUtils;
+import com.example.fullrestapi.domain.entities.BookEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// The servlet app owns the schema and the writes; the reactive app is started once next to it on a
+// random port and must answer the read endpoints with the same JSON. Both contexts live for the whole
+// class, so each test only looks at the rows it wrote itself.
+@SpringBootTest(classes = FullRestApiApplication.class)
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@DirtiesContext
+public class ReactiveReadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static ConfigurableApplicationContext reactiveApp;
+    private static WebTestClient webTestClient;
+
+    @BeforeAll
+    public static void startReactiveApp() {
+        reactiveApp = new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .profiles(ReactiveReadApplication.PROFILE)
+                .properties("server.port=0")
+                .run();
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveApp.getEnvironment().getProperty("local.server.port"))
+                .build();
+    }
+
+    @AfterAll
+    public static void stopReactiveApp() {
+        reactiveApp.close();
+    }
+
+    @Test
+    public void testGetBookAndAuthorMatchServletResponses() throws Exception {
+        BookEntity book = bookService.save("965-982-0-110", TestDataUtils.createBookFull(TestDataUtils.createAuthorFull()));
+
+        assertEquals(servletJson("/books/" + book.getIsbn()), reactiveJson("/books/" + book.getIsbn()));
+        assertEquals(servletJson("/authors/" + book.getAuthor().getId()), reactiveJson("/authors/" + book.getAuthor().getId()));
+
+        webTestClient.get().uri("/books/unknown").exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/authors/999999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Author not found");
+    }
+
+    @Test
+    public void testListBooksPagesAndStreams() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            BookEntity book = TestDataUtils.createBookFull(TestDataUtils.createAuthorFull());
+            book.setIsbn("R-" + i);
+            book.getAuthor().setName("Reactive Author " + i);
+            bookService.save(book.getIsbn(), book);
+        }
+
+        JsonNode servletPage = servletJson("/books?page=1&size=2&sort=isbn");
+        JsonNode reactivePage = reactiveJson("/books?page=1&size=2&sort=isbn");
+        assertEquals(servletPage.get("content"), reactivePage.get("content"));
+        assertEquals(servletPage.get("totalElements"), reactivePage.get("totalElements"));
+
+        byte[] ndjson = webTestClient.get().uri("/books?sort=isbn,desc")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody().returnResult().getResponseBody();
+        List<JsonNode> seeded = new ArrayList<>();
+        for (String line : new String(ndjson, StandardCharsets.UTF_8).lines().toList()) {
+            JsonNode book = objectMapper.readTree(line);
+            if (book.get("isbn").asText().startsWith("R-")) {
+                seeded.add(book);
+            }
+        }
+        assertEquals(List.of("R-4", "R-3", "R-2", "R-1", "R-0"),
+                seeded.stream().map(book -> book.get("isbn").asText()).toList());
+        assertEquals(List.of("Java", "Programming"), objectMapper.convertValue(seeded.get(4).get("tags"), List.class));
+
+        webTestClient.get().uri("/books?sort=author_id").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Unsupported sort property: author_id");
+    }
+
+    private JsonNode servletJson(String uri) throws Exception {
+        String body = mockMvc.perform(MockMvcRequestBuilders.get(uri))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode reactiveJson(String uri) throws Exception {
+        byte[] body = webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        return objectMapper.readTree(body);
+    }
+}